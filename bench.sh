@@ -0,0 +1,21 @@
+#!/bin/bash
+
+# Builds the storage layer with the benchmarks under test/ and runs them
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+cd "$SCRIPT_DIR"
+
+rm -rf build/bench && mkdir -p build/bench
+javac -d build/bench \
+    src/com/tmse/pizza/models/*.java \
+    src/com/tmse/pizza/storage/*.java \
+    $(find test -name '*Benchmark.java')
+if [ $? -ne 0 ]; then
+    echo "Compilation failed!"
+    exit 1
+fi
+
+for benchmark in $(cd test && find . -name '*Benchmark.java' | sed 's|^\./||; s|\.java$||; s|/|.|g'); do
+    echo "== $benchmark"
+    java -cp build/bench "$benchmark" || exit 1
+done
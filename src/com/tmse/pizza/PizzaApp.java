@@ -1,9 +1,12 @@
 package com.tmse.pizza;
 
 import com.tmse.pizza.gui.LandingWindow;
+import com.tmse.pizza.storage.MenuLoader;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+
 // Main application class for TMSE Pizza Ordering System - starts with landing page
 public class PizzaApp extends Application {
     @Override
@@ -24,6 +27,13 @@ public class PizzaApp extends Application {
             }
         });
         
+        // Prices come from data/menu.txt, reloaded whenever it is saved; the built-in menu is the fallback
+        try {
+            MenuLoader.start();
+        } catch (IOException e) {
+            System.err.println("Could not load the menu file, using the built-in menu: " + e.getMessage());
+        }
+
         LandingWindow landingWindow = new LandingWindow(primaryStage);
         landingWindow.show();
     }
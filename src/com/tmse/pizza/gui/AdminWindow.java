@@ -2,11 +2,17 @@ package com.tmse.pizza.gui;
 
 import com.tmse.pizza.models.*;
 import com.tmse.pizza.storage.FileStorage;
+import com.tmse.pizza.storage.OrderChange;
+import com.tmse.pizza.storage.OrderQuery;
+import com.tmse.pizza.storage.SalesRollup;
+import com.tmse.pizza.storage.StorageService;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
@@ -14,28 +20,47 @@ import javafx.scene.layout.*;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
 // Admin dashboard window for viewing orders, generating reports, managing users, and assigning drivers
 public class AdminWindow {
+    private static final DateTimeFormatter REPORT_DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    // Rows fetched per page as the orders table is scrolled
+    private static final int PAGE_SIZE = 100;
+    // The order pages come back in: newest first, ties by order id
+    private static final Comparator<Order> NEWEST_FIRST =
+        Comparator.comparingLong(Order::getOrderTimeMillis).reversed().thenComparing(Order::getOrderId);
+
     private Stage stage;
     private User currentUser;
     private ObservableList<Order> ordersList;
     private ObservableList<User> usersList;
+    // Shared by every row's driver dropdown so rendering a cell never touches users.txt
+    private ObservableList<String> driverChoices;
     private TableView<Order> ordersTable;
     private TableView<User> usersTable;
     private Label revenueLabel;
     private Label pendingLabel;
     private Label preparingLabel;
     private Label readyLabel;
+    // The filter the orders table is showing, so refreshes and live changes land in the right view
+    private OrderQuery currentQuery = OrderQuery.all();
+    // Cursor for the next page of the current query; null once every matching order is loaded
+    private String nextCursor;
+    private boolean loadingPage;
+    // Bumped by every page request so answers to superseded requests are dropped
+    private int pageRequest;
 
     public AdminWindow(Stage primaryStage, User user) {
         this.stage = primaryStage;
         this.currentUser = user;
         this.ordersList = FXCollections.observableArrayList();
         this.usersList = FXCollections.observableArrayList();
+        this.driverChoices = FXCollections.observableArrayList("Select Driver");
     }
 
     public void show() {
@@ -100,6 +125,33 @@ public class AdminWindow {
         refreshOrders();
         refreshUsers();
         updateStats();
+        // From here on, orders saved by this or any other terminal show up without a refresh,
+        // until the window is left by any route
+        FxAsync.subscribeToOrders(scene, this::applyOrderChange);
+    }
+
+    private void applyOrderChange(OrderChange change) {
+        switch (change.getType()) {
+            case SAVED:
+                Order order = change.getOrder();
+                // An order older than every loaded row arrives with a later page instead
+                boolean loaded = nextCursor == null || ordersList.isEmpty()
+                    || NEWEST_FIRST.compare(order, ordersList.get(ordersList.size() - 1)) < 0;
+                if (currentQuery.matches(order) && loaded) {
+                    OrderListPatch.upsert(ordersTable, order, NEWEST_FIRST);
+                } else {
+                    OrderListPatch.remove(ordersTable, order.getOrderId());
+                }
+                updateStats();
+                break;
+            case REMOVED:
+                OrderListPatch.remove(ordersTable, change.getOrderId());
+                updateStats();
+                break;
+            case RELOADED:
+                refreshOrders();
+                break;
+        }
     }
 
     private VBox createOrdersTab() {
@@ -117,33 +169,45 @@ public class AdminWindow {
 
         statsBox.getChildren().addAll(pendingLabel, preparingLabel, readyLabel, revenueLabel);
 
-        // Filter buttons
+        // Status filter; the selected button stays down so the filter in effect is visible
         HBox filterBox = new HBox(10);
         filterBox.setAlignment(Pos.CENTER_LEFT);
-        
-        Button allButton = new Button("All");
-        Button pendingButton = new Button("Pending");
-        Button preparingButton = new Button("Preparing");
-        Button readyButton = new Button("Ready");
-        Button outForDeliveryButton = new Button("Out for Delivery");
-        Button deliveredButton = new Button("Delivered");
-        Button cancelledButton = new Button("Cancelled");
-
-        allButton.setOnAction(e -> filterOrders("all"));
-        pendingButton.setOnAction(e -> filterOrders("Pending"));
-        preparingButton.setOnAction(e -> filterOrders("Preparing"));
-        readyButton.setOnAction(e -> filterOrders("ready"));
-        outForDeliveryButton.setOnAction(e -> filterOrders("out-for-delivery"));
-        deliveredButton.setOnAction(e -> filterOrders("delivered"));
-        cancelledButton.setOnAction(e -> filterOrders("cancelled"));
-
-        filterBox.getChildren().addAll(allButton, pendingButton, preparingButton, readyButton, 
-                                       outForDeliveryButton, deliveredButton, cancelledButton);
+
+        ToggleGroup statusGroup = new ToggleGroup();
+        ToggleButton allButton = createStatusToggle("All", null, statusGroup);
+        allButton.setSelected(true);
+        filterBox.getChildren().add(allButton);
+        for (OrderStatus status : OrderStatus.values()) {
+            filterBox.getChildren().add(createStatusToggle(status.getLabel(), status, statusGroup));
+        }
+
+        // Type and date filters combine with the status filter
+        HBox queryBox = new HBox(10);
+        queryBox.setAlignment(Pos.CENTER_LEFT);
+
+        ComboBox<String> typeCombo = new ComboBox<>(FXCollections.observableArrayList("All Types", "Delivery", "Pickup"));
+        typeCombo.getSelectionModel().selectFirst();
+        typeCombo.setOnAction(e -> {
+            String type = typeCombo.getValue();
+            filterOrders(currentQuery.withType(type == null || "All Types".equals(type) ? null : type));
+        });
+
+        DatePicker fromPicker = new DatePicker();
+        DatePicker toPicker = new DatePicker();
+        fromPicker.setPromptText("Any");
+        toPicker.setPromptText("Any");
+        fromPicker.setOnAction(e -> filterOrders(currentQuery.placedBetween(fromPicker.getValue(), toPicker.getValue())));
+        toPicker.setOnAction(e -> filterOrders(currentQuery.placedBetween(fromPicker.getValue(), toPicker.getValue())));
+
+        queryBox.getChildren().addAll(new Label("Type:"), typeCombo, new Label("Placed from:"), fromPicker,
+                                      new Label("to:"), toPicker);
 
         // Orders table
         ordersTable = new TableView<>();
         ordersTable.setItems(ordersList);
         ordersTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        // The scroll bar only exists once the table has a skin
+        ordersTable.skinProperty().addListener((obs, oldSkin, skin) -> Platform.runLater(this::watchOrdersScroll));
 
         TableColumn<Order, String> orderIdCol = new TableColumn<>("Order #");
         orderIdCol.setCellValueFactory(new PropertyValueFactory<>("orderId"));
@@ -175,7 +239,7 @@ public class AdminWindow {
 
         TableColumn<Order, String> totalCol = new TableColumn<>("Total");
         totalCol.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty("$" + String.format("%.2f", cellData.getValue().getTotal())));
+            new javafx.beans.property.SimpleStringProperty("$" + Money.format(cellData.getValue().getTotalCents())));
 
         TableColumn<Order, String> statusCol = new TableColumn<>("Status");
         statusCol.setCellValueFactory(new PropertyValueFactory<>("status"));
@@ -196,6 +260,7 @@ public class AdminWindow {
 
             {
                 statusButton.setStyle("-fx-padding: 5 10; -fx-font-size: 12px;");
+                driverCombo.setItems(driverChoices);
                 cancelButton.setStyle("-fx-padding: 5 10; -fx-font-size: 12px; -fx-background-color: #ef4444; -fx-text-fill: white;");
                 
                 statusButton.setOnAction(e -> {
@@ -212,13 +277,15 @@ public class AdminWindow {
                         showAlert("Cannot cancel this order");
                         return;
                     }
-                    order.setStatus("cancelled");
-                    try {
-                        FileStorage.updateOrder(order);
-                        refreshOrders();
-                    } catch (IOException ex) {
-                        showAlert("Error updating order: " + ex.getMessage());
-                    }
+                    // The row itself only changes when the order feed delivers the saved order
+                    Order cancelled = order.copy();
+                    cancelled.setStatus("cancelled");
+                    FxAsync.onFxThread(StorageService.updateOrder(cancelled),
+                        done -> { },
+                        ex -> {
+                            showAlert("Error updating order: " + ex.getMessage());
+                            refreshOrders();
+                        });
                 });
             }
 
@@ -244,34 +311,25 @@ public class AdminWindow {
                         statusButton.setStyle("-fx-background-color: #10b981; -fx-text-fill: white; -fx-padding: 5 10;");
                         box.getChildren().add(statusButton);
                     } else if ("ready".equals(status) && "delivery".equals(order.getOrderType())) {
-                        // Show driver assignment
-                        try {
-                            List<User> drivers = FileStorage.getAllUsers().stream()
-                                .filter(u -> "driver".equals(u.getRole()))
-                                .collect(Collectors.toList());
-                            driverCombo.getItems().clear();
-                            driverCombo.getItems().add("Select Driver");
-                            for (User driver : drivers) {
-                                driverCombo.getItems().add(driver.getUsername());
-                            }
-                            driverCombo.setOnAction(e -> {
-                                String selected = driverCombo.getSelectionModel().getSelectedItem();
-                                if (selected != null && !selected.equals("Select Driver")) {
-                                    order.setAssignedDriverId(selected);
-                                    order.setAssignedDriverName(selected);
-                                    order.setStatus("out-for-delivery");
-                                    try {
-                                        FileStorage.updateOrder(order);
-                                        refreshOrders();
-                                    } catch (IOException ex) {
+                        // Show driver assignment; the cell may be reused, so drop the last row's selection first
+                        driverCombo.setOnAction(null);
+                        driverCombo.getSelectionModel().clearSelection();
+                        driverCombo.setOnAction(e -> {
+                            String selected = driverCombo.getSelectionModel().getSelectedItem();
+                            if (selected != null && !selected.equals("Select Driver")) {
+                                FxAsync.onFxThread(StorageService.claimOrder(order.getOrderId(), selected),
+                                    claimed -> {
+                                        if (!claimed) {
+                                            showAlert("Order " + order.getOrderId() + " already has a driver.");
+                                        }
+                                    },
+                                    ex -> {
                                         showAlert("Error assigning driver: " + ex.getMessage());
-                                    }
-                                }
-                            });
-                            box.getChildren().add(driverCombo);
-                        } catch (IOException ex) {
-                            showAlert("Error loading drivers: " + ex.getMessage());
-                        }
+                                        refreshOrders();
+                                    });
+                            }
+                        });
+                        box.getChildren().add(driverCombo);
                     } else if ("ready".equals(status) && (order.getOrderType() == null || "pickup".equals(order.getOrderType()))) {
                         statusButton.setText("Picked Up");
                         statusButton.setStyle("-fx-background-color: #6b7280; -fx-text-fill: white; -fx-padding: 5 10;");
@@ -293,28 +351,41 @@ public class AdminWindow {
         scrollPane.setFitToWidth(true);
         scrollPane.setFitToHeight(true);
 
-        vbox.getChildren().addAll(statsBox, filterBox, scrollPane);
+        vbox.getChildren().addAll(statsBox, filterBox, queryBox, scrollPane);
         return vbox;
     }
 
+    private ToggleButton createStatusToggle(String label, OrderStatus status, ToggleGroup group) {
+        ToggleButton button = new ToggleButton(label);
+        button.setToggleGroup(group);
+        button.setOnAction(e -> {
+            // Clicking the active filter again keeps it rather than leaving no button down
+            button.setSelected(true);
+            filterOrders(currentQuery.withStatus(status));
+        });
+        return button;
+    }
+
     private void handleStatusUpdate(Order order) {
         String currentStatus = order.getStatus();
         if (currentStatus == null) currentStatus = "pending";
         currentStatus = currentStatus.toLowerCase();
+        // Saved from a copy; the row is replaced when the order feed delivers the saved order
+        Order updated = order.copy();
         if ("pending".equals(currentStatus)) {
-            order.setStatus("preparing");
+            updated.setStatus("preparing");
         } else if ("preparing".equals(currentStatus)) {
-            order.setStatus("ready");
+            updated.setStatus("ready");
         } else if ("ready".equals(currentStatus) && (order.getOrderType() == null || "pickup".equals(order.getOrderType()))) {
-            order.setStatus("delivered");
+            updated.setStatus("delivered");
         }
         
-        try {
-            FileStorage.updateOrder(order);
-            refreshOrders();
-        } catch (IOException ex) {
-            showAlert("Error updating order: " + ex.getMessage());
-        }
+        FxAsync.onFxThread(StorageService.updateOrder(updated),
+            done -> { },
+            ex -> {
+                showAlert("Error updating order: " + ex.getMessage());
+                refreshOrders();
+            });
     }
 
     private VBox createUsersTab() {
@@ -355,6 +426,10 @@ public class AdminWindow {
         dailyReportButton.setStyle("-fx-background-color: #dc2626; -fx-text-fill: white; -fx-padding: 10 20; -fx-font-size: 14px;");
         dailyReportButton.setOnAction(e -> generateDailyReport());
 
+        reportDatePicker = new DatePicker(LocalDate.now());
+        HBox dailyReportBox = new HBox(10, dailyReportButton, new Label("Date:"), reportDatePicker);
+        dailyReportBox.setAlignment(Pos.CENTER_LEFT);
+
         Button salesReportButton = new Button("Generate Sales Report");
         salesReportButton.setStyle("-fx-background-color: #dc2626; -fx-text-fill: white; -fx-padding: 10 20; -fx-font-size: 14px;");
         salesReportButton.setOnAction(e -> generateSalesReport());
@@ -372,7 +447,7 @@ public class AdminWindow {
         scrollPane.setFitToWidth(true);
         scrollPane.setFitToHeight(true);
 
-        vbox.getChildren().addAll(titleLabel, dailyReportButton, salesReportButton, resetSalesButton, scrollPane);
+        vbox.getChildren().addAll(titleLabel, dailyReportBox, salesReportButton, resetSalesButton, scrollPane);
         
         // Store reference to report area for updates
         this.reportArea = reportArea;
@@ -381,140 +456,90 @@ public class AdminWindow {
     }
 
     private TextArea reportArea;
+    private DatePicker reportDatePicker;
 
     private void generateDailyReport() {
-        try {
-            List<Order> allOrders = FileStorage.getAllOrders();
-            Date today = new Date();
-            java.util.Calendar todayCal = java.util.Calendar.getInstance();
-            todayCal.setTime(today);
-            int todayYear = todayCal.get(java.util.Calendar.YEAR);
-            int todayMonth = todayCal.get(java.util.Calendar.MONTH);
-            int todayDay = todayCal.get(java.util.Calendar.DAY_OF_MONTH);
-            
-            List<Order> todayOrders = allOrders.stream()
-                .filter(o -> {
-                    if (o.getOrderDate() == null) return false;
-                    java.util.Calendar orderCal = java.util.Calendar.getInstance();
-                    orderCal.setTime(o.getOrderDate());
-                    return orderCal.get(java.util.Calendar.YEAR) == todayYear &&
-                           orderCal.get(java.util.Calendar.MONTH) == todayMonth &&
-                           orderCal.get(java.util.Calendar.DAY_OF_MONTH) == todayDay;
-                })
-                .collect(Collectors.toList());
-            
-            SimpleDateFormat dateFormat = new SimpleDateFormat("MM/dd/yyyy");
-            String todayStr = dateFormat.format(today);
-
-            int totalOrders = todayOrders.size();
-            double totalSales = todayOrders.stream()
-                .filter(o -> !"cancelled".equals(o.getStatus()))
-                .mapToDouble(Order::getTotal)
-                .sum();
-            double totalTax = todayOrders.stream()
-                .filter(o -> !"cancelled".equals(o.getStatus()))
-                .mapToDouble(Order::getTax)
-                .sum();
-            double avgOrderValue = totalOrders > 0 ? totalSales / totalOrders : 0;
-
-            // Count payment methods
-            double cashPayments = todayOrders.stream()
-                .filter(o -> o.getPaymentMethod() != null && o.getPaymentMethod().toLowerCase().contains("cash"))
-                .mapToDouble(Order::getTotal)
-                .sum();
-            double cardPayments = totalSales - cashPayments;
-
-            // Top selling items
-            Map<String, Integer> itemCounts = new HashMap<>();
-            for (Order order : todayOrders) {
-                for (OrderItem item : order.getItems()) {
-                    String itemName = item.getName();
-                    itemCounts.put(itemName, itemCounts.getOrDefault(itemName, 0) + item.getQuantity());
-                }
-            }
+        reportArea.setText("Generating report...");
+        LocalDate day = reportDatePicker.getValue() != null ? reportDatePicker.getValue() : LocalDate.now();
+        FxAsync.onFxThread(StorageService.submit(() -> buildDailyReport(day)),
+            report -> reportArea.setText(report),
+            ex -> showAlert("Error generating report: " + ex.getMessage()));
+    }
 
-            // Order type breakdown
-            long deliveryCount = todayOrders.stream()
-                .filter(o -> "delivery".equals(o.getOrderType()))
-                .count();
-            long pickupCount = todayOrders.stream()
-                .filter(o -> "pickup".equals(o.getOrderType()) || o.getOrderType() == null)
-                .count();
-
-            // Refunds/Voids
-            List<Order> refunds = todayOrders.stream()
-                .filter(o -> "cancelled".equals(o.getStatus()))
-                .collect(Collectors.toList());
-
-            StringBuilder report = new StringBuilder();
-            report.append("TMSE Pizza — Daily Summary Report\n");
-            report.append("Date: ").append(todayStr).append("\n");
-            report.append("==========================================\n\n");
-            report.append("Sales Summary\n");
-            report.append("- Total Orders: ").append(totalOrders).append("\n");
-            report.append("- Total Sales: $").append(String.format("%.2f", totalSales)).append("\n");
-            report.append("- Total Tax Collected: $").append(String.format("%.2f", totalTax)).append("\n");
-            report.append("- Average Order Value: $").append(String.format("%.2f", avgOrderValue)).append("\n");
-            report.append("- Cash Payments: $").append(String.format("%.2f", cashPayments)).append("\n");
-            report.append("- Card Payments: $").append(String.format("%.2f", cardPayments)).append("\n\n");
-
-            report.append("Top-Selling Items\n");
-            itemCounts.entrySet().stream()
-                .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
-                .limit(5)
-                .forEach(entry -> 
-                    report.append("- ").append(entry.getKey()).append(": ").append(entry.getValue()).append("\n")
-                );
-            report.append("\n");
-
-            report.append("Order Type Breakdown\n");
-            report.append("- Delivery: ").append(deliveryCount).append("\n");
-            report.append("- Pickup: ").append(pickupCount).append("\n\n");
-
-            if (!refunds.isEmpty()) {
-                report.append("Refunds / Voids\n");
-                for (Order refund : refunds) {
-                    report.append("- ").append(refund.getOrderId())
-                          .append(" — $").append(String.format("%.2f", refund.getTotal())).append("\n");
-                }
-            }
+    // Reads the day's precomputed rollup, so past days cost the same as today
+    private String buildDailyReport(LocalDate day) throws IOException {
+        SalesRollup rollup = FileStorage.getDailyRollup(day);
+        String todayStr = REPORT_DATE_FORMAT.format(day);
+
+        int totalOrders = rollup.getOrderCount();
+        long totalSales = rollup.getTotalSalesCents();
+        long totalTax = rollup.getTotalTaxCents();
+        long avgOrderValue = totalOrders > 0 ? (totalSales + totalOrders / 2) / totalOrders : 0;
+        long cashPayments = rollup.getCashPaymentsCents();
+        long cardPayments = rollup.getCardPaymentsCents();
+        Map<String, Integer> itemCounts = rollup.getItemCounts();
+        long deliveryCount = rollup.getDeliveryCount();
+        long pickupCount = rollup.getPickupCount();
+        Map<String, Long> refunds = rollup.getRefunds();
+
+        StringBuilder report = new StringBuilder();
+        report.append("TMSE Pizza — Daily Summary Report\n");
+        report.append("Date: ").append(todayStr).append("\n");
+        report.append("==========================================\n\n");
+        report.append("Sales Summary\n");
+        report.append("- Total Orders: ").append(totalOrders).append("\n");
+        report.append("- Total Sales: $").append(Money.format(totalSales)).append("\n");
+        report.append("- Total Tax Collected: $").append(Money.format(totalTax)).append("\n");
+        report.append("- Average Order Value: $").append(Money.format(avgOrderValue)).append("\n");
+        report.append("- Cash Payments: $").append(Money.format(cashPayments)).append("\n");
+        report.append("- Card Payments: $").append(Money.format(cardPayments)).append("\n\n");
+
+        report.append("Top-Selling Items\n");
+        itemCounts.entrySet().stream()
+            .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
+            .limit(5)
+            .forEach(entry -> 
+                report.append("- ").append(entry.getKey()).append(": ").append(entry.getValue()).append("\n")
+            );
+        report.append("\n");
 
-            reportArea.setText(report.toString());
-        } catch (IOException ex) {
-            showAlert("Error generating report: " + ex.getMessage());
+        report.append("Order Type Breakdown\n");
+        report.append("- Delivery: ").append(deliveryCount).append("\n");
+        report.append("- Pickup: ").append(pickupCount).append("\n\n");
+
+        if (!refunds.isEmpty()) {
+            report.append("Refunds / Voids\n");
+            for (Map.Entry<String, Long> refund : refunds.entrySet()) {
+                report.append("- ").append(refund.getKey())
+                      .append(" — $").append(Money.format(refund.getValue())).append("\n");
+            }
         }
+
+        return report.toString();
     }
 
     private void generateSalesReport() {
-        try {
-            List<Order> allOrders = FileStorage.getAllOrders();
-            
-            double totalSales = allOrders.stream()
-                .filter(o -> !"cancelled".equals(o.getStatus()))
-                .mapToDouble(Order::getTotal)
-                .sum();
-            
-            double totalTax = allOrders.stream()
-                .filter(o -> !"cancelled".equals(o.getStatus()))
-                .mapToDouble(Order::getTax)
-                .sum();
-
-            long totalOrders = allOrders.stream()
-                .filter(o -> !"cancelled".equals(o.getStatus()))
-                .count();
-
-            StringBuilder report = new StringBuilder();
-            report.append("TMSE Pizza — Sales Report\n");
-            report.append("==========================================\n\n");
-            report.append("Total Orders: ").append(totalOrders).append("\n");
-            report.append("Total Sales: $").append(String.format("%.2f", totalSales)).append("\n");
-            report.append("Total Tax: $").append(String.format("%.2f", totalTax)).append("\n");
-            report.append("Net Revenue: $").append(String.format("%.2f", totalSales - totalTax)).append("\n");
-
-            reportArea.setText(report.toString());
-        } catch (IOException ex) {
-            showAlert("Error generating report: " + ex.getMessage());
-        }
+        reportArea.setText("Generating report...");
+        FxAsync.onFxThread(StorageService.submit(this::buildSalesReport),
+            report -> reportArea.setText(report),
+            ex -> showAlert("Error generating report: " + ex.getMessage()));
+    }
+
+    private String buildSalesReport() throws IOException {
+        SalesRollup rollup = FileStorage.getAllTimeRollup();
+        long totalSales = rollup.getTotalSalesCents();
+        long totalTax = rollup.getTotalTaxCents();
+        long totalOrders = rollup.getSalesOrderCount();
+
+        StringBuilder report = new StringBuilder();
+        report.append("TMSE Pizza — Sales Report\n");
+        report.append("==========================================\n\n");
+        report.append("Total Orders: ").append(totalOrders).append("\n");
+        report.append("Total Sales: $").append(Money.format(totalSales)).append("\n");
+        report.append("Total Tax: $").append(Money.format(totalTax)).append("\n");
+        report.append("Net Revenue: $").append(Money.format(totalSales - totalTax)).append("\n");
+
+        return report.toString();
     }
 
     private void resetSalesForToday() {
@@ -525,50 +550,30 @@ public class AdminWindow {
         
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    List<Order> allOrders = FileStorage.getAllOrders();
-                    Date today = new Date();
-                    java.util.Calendar todayCal = java.util.Calendar.getInstance();
-                    todayCal.setTime(today);
-                    int todayYear = todayCal.get(java.util.Calendar.YEAR);
-                    int todayMonth = todayCal.get(java.util.Calendar.MONTH);
-                    int todayDay = todayCal.get(java.util.Calendar.DAY_OF_MONTH);
-                    
-                    // Filter out today's orders
-                    List<Order> ordersToKeep = allOrders.stream()
-                        .filter(o -> {
-                            if (o.getOrderDate() == null) return true;
-                            java.util.Calendar orderCal = java.util.Calendar.getInstance();
-                            orderCal.setTime(o.getOrderDate());
-                            return !(orderCal.get(java.util.Calendar.YEAR) == todayYear &&
-                                   orderCal.get(java.util.Calendar.MONTH) == todayMonth &&
-                                   orderCal.get(java.util.Calendar.DAY_OF_MONTH) == todayDay);
-                        })
-                        .collect(Collectors.toList());
-                    
-                    // Delete all orders and re-save only the ones to keep
-                    java.io.File ordersFile = new java.io.File("data/orders.txt");
-                    if (ordersFile.exists()) {
-                        ordersFile.delete();
-                    }
-                    
-                    // Re-save all orders except today's
-                    for (Order order : ordersToKeep) {
-                        FileStorage.saveOrder(order);
-                    }
-                    
+                LocalDate today = LocalDate.now();
+                long dayStart = startOfDay(today);
+                long dayEnd = startOfDay(today.plusDays(1));
+                // One atomic rewrite of the order file; a crash midway leaves the old file intact
+                FxAsync.onFxThread(StorageService.submit(() -> FileStorage.deleteOrders(o -> isBetween(o, dayStart, dayEnd))), removed -> {
                     showAlert("Sales for today have been reset successfully!");
-                    refreshOrders();
                     if (reportArea != null) {
                         reportArea.clear();
                     }
-                } catch (IOException ex) {
-                    showAlert("Error resetting sales: " + ex.getMessage());
-                }
+                }, ex -> showAlert("Error resetting sales: " + ex.getMessage()));
             }
         });
     }
 
+    private static long startOfDay(LocalDate day) {
+        return day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Compares raw epoch millis so filtering by day never decodes a Date or builds a Calendar
+    private static boolean isBetween(Order order, long fromMillis, long toMillis) {
+        long time = order.getOrderTimeMillis();
+        return time >= fromMillis && time < toMillis;
+    }
+
     private Label createStatCard(String label, String value, String color) {
         Label card = new Label(label + "\n" + value);
         card.setStyle("-fx-background-color: " + color + "; -fx-text-fill: white; -fx-padding: 15 20; " +
@@ -578,104 +583,102 @@ public class AdminWindow {
         return card;
     }
 
-    private void filterOrders(String status) {
-        try {
-            List<Order> allOrders = FileStorage.getAllOrders();
-            if ("all".equals(status)) {
-                ordersList.setAll(allOrders);
-            } else {
-                List<Order> filtered = allOrders.stream()
-                    .filter(o -> {
-                        String orderStatus = o.getStatus();
-                        if (orderStatus == null) return false;
-                        // Handle case-insensitive matching and status variations
-                        if ("ready".equals(status)) {
-                            return "ready".equalsIgnoreCase(orderStatus);
-                        } else if ("out-for-delivery".equals(status)) {
-                            return "out-for-delivery".equalsIgnoreCase(orderStatus);
-                        } else {
-                            return status.equalsIgnoreCase(orderStatus);
-                        }
-                    })
-                    .collect(Collectors.toList());
-                ordersList.setAll(filtered);
-            }
-        } catch (IOException ex) {
-            showAlert("Error loading orders: " + ex.getMessage());
-        }
+    private void filterOrders(OrderQuery query) {
+        currentQuery = query;
+        loadOrders(PAGE_SIZE);
     }
 
     private void refreshOrders() {
-        try {
-            List<Order> allOrders = FileStorage.getAllOrders();
-            ordersList.setAll(allOrders);
-            updateStats();
-        } catch (IOException ex) {
+        refreshDriverChoices();
+        // Re-reads as many rows as are loaded, so the table keeps its place
+        loadOrders(Math.max(PAGE_SIZE, ordersList.size()));
+        updateStats();
+    }
+
+    // Replaces the table's rows with the newest orders matching the current query
+    private void loadOrders(int limit) {
+        int request = ++pageRequest;
+        loadingPage = true;
+        FxAsync.setLoading(ordersTable, true);
+        FxAsync.onFxThread(StorageService.findOrdersPage(currentQuery, null, limit), page -> {
+            if (request != pageRequest) return;
+            OrderListPatch.apply(ordersTable, page.getOrders());
+            nextCursor = page.getNextCursor();
+            loadingPage = false;
+            FxAsync.setLoading(ordersTable, false);
+        }, ex -> {
+            if (request == pageRequest) loadingPage = false;
+            FxAsync.setLoading(ordersTable, false);
             showAlert("Error loading orders: " + ex.getMessage());
+        });
+    }
+
+    private void loadNextPage() {
+        if (loadingPage || nextCursor == null) return;
+        int request = ++pageRequest;
+        loadingPage = true;
+        FxAsync.onFxThread(StorageService.findOrdersPage(currentQuery, nextCursor, PAGE_SIZE), page -> {
+            if (request != pageRequest) return;
+            OrderListPatch.append(ordersTable, page.getOrders());
+            nextCursor = page.getNextCursor();
+            loadingPage = false;
+        }, ex -> {
+            if (request == pageRequest) loadingPage = false;
+            showAlert("Error loading orders: " + ex.getMessage());
+        });
+    }
+
+    // Fetches the next page once the table is scrolled near its last loaded row
+    private void watchOrdersScroll() {
+        for (Node node : ordersTable.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                ScrollBar bar = (ScrollBar) node;
+                bar.valueProperty().addListener((obs, oldValue, value) -> {
+                    if (value.doubleValue() >= bar.getMax() * 0.9) loadNextPage();
+                });
+            }
         }
     }
     
     private void updateStats() {
-        try {
-            List<Order> allOrders = FileStorage.getAllOrders();
-            
-            // Count orders by status
-            long pendingCount = allOrders.stream()
-                .filter(o -> "pending".equalsIgnoreCase(o.getStatus()))
-                .count();
-            long preparingCount = allOrders.stream()
-                .filter(o -> "preparing".equalsIgnoreCase(o.getStatus()))
-                .count();
-            long readyCount = allOrders.stream()
-                .filter(o -> "ready".equalsIgnoreCase(o.getStatus()))
-                .count();
-            
-            // Calculate today's revenue
-            Date today = new Date();
-            java.util.Calendar todayCal = java.util.Calendar.getInstance();
-            todayCal.setTime(today);
-            int todayYear = todayCal.get(java.util.Calendar.YEAR);
-            int todayMonth = todayCal.get(java.util.Calendar.MONTH);
-            int todayDay = todayCal.get(java.util.Calendar.DAY_OF_MONTH);
-            
-            double todayRevenue = allOrders.stream()
-                .filter(o -> {
-                    if (o.getOrderDate() == null) return false;
-                    java.util.Calendar orderCal = java.util.Calendar.getInstance();
-                    orderCal.setTime(o.getOrderDate());
-                    return orderCal.get(java.util.Calendar.YEAR) == todayYear &&
-                           orderCal.get(java.util.Calendar.MONTH) == todayMonth &&
-                           orderCal.get(java.util.Calendar.DAY_OF_MONTH) == todayDay;
-                })
-                .filter(o -> !"cancelled".equalsIgnoreCase(o.getStatus()))
-                .mapToDouble(Order::getTotal)
-                .sum();
-            
+        FxAsync.onFxThread(StorageService.getDashboardStats(), stats -> {
             // Update stat cards
             if (pendingLabel != null) {
-                pendingLabel.setText("Pending\n" + pendingCount);
+                pendingLabel.setText("Pending\n" + stats.getPendingCount());
             }
             if (preparingLabel != null) {
-                preparingLabel.setText("Preparing\n" + preparingCount);
+                preparingLabel.setText("Preparing\n" + stats.getPreparingCount());
             }
             if (readyLabel != null) {
-                readyLabel.setText("Ready\n" + readyCount);
+                readyLabel.setText("Ready\n" + stats.getReadyCount());
             }
             if (revenueLabel != null) {
-                revenueLabel.setText("Today's Revenue\n$" + String.format("%.2f", todayRevenue));
+                revenueLabel.setText("Today's Revenue\n$" + Money.format(stats.getTodayRevenueCents()));
             }
-        } catch (IOException ex) {
-            showAlert("Error updating stats: " + ex.getMessage());
-        }
+        }, ex -> showAlert("Error updating stats: " + ex.getMessage()));
+    }
+
+    // The roster is cached in storage, so this only reads users.txt after it has changed
+    private void refreshDriverChoices() {
+        FxAsync.onFxThread(StorageService.getDriverNames(), names -> {
+            if (driverChoices.size() != names.size() + 1 || !driverChoices.subList(1, driverChoices.size()).equals(names)) {
+                List<String> choices = new ArrayList<>(names.size() + 1);
+                choices.add("Select Driver");
+                choices.addAll(names);
+                driverChoices.setAll(choices);
+            }
+        }, ex -> showAlert("Error loading drivers: " + ex.getMessage()));
     }
 
     private void refreshUsers() {
-        try {
-            List<User> allUsers = FileStorage.getAllUsers();
+        FxAsync.setLoading(usersTable, true);
+        FxAsync.onFxThread(StorageService.getAllUsers(), allUsers -> {
             usersList.setAll(allUsers);
-        } catch (IOException ex) {
+            FxAsync.setLoading(usersTable, false);
+        }, ex -> {
+            FxAsync.setLoading(usersTable, false);
             showAlert("Error loading users: " + ex.getMessage());
-        }
+        });
     }
 
     private void showAlert(String message) {
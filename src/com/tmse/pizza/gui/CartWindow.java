@@ -10,7 +10,9 @@ import javafx.scene.layout.*;
 import javafx.stage.Stage;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 // Cart window for viewing and managing order items
 public class CartWindow {
@@ -79,22 +81,35 @@ public class CartWindow {
         summaryBox.setPadding(new Insets(20));
         summaryBox.setStyle("-fx-background-color: #ffffff; -fx-border-color: #e5e7eb; -fx-border-width: 1; -fx-border-radius: 5;");
 
-        double subtotal = cartItems.stream().mapToDouble(OrderItem::getTotalPrice).sum();
-        double tax = subtotal * 0.08;
-        double total = subtotal + tax;
-
+        // Amounts are filled in by refreshSummary below, once the delivery fields exist
         HBox subtotalRow = new HBox();
         subtotalRow.setAlignment(Pos.CENTER_RIGHT);
         Label subtotalLabel = new Label("Subtotal:");
-        Label subtotalValue = new Label("$" + String.format("%.2f", subtotal));
+        Label subtotalValue = new Label();
         subtotalValue.setStyle("-fx-font-weight: bold;");
         HBox.setHgrow(subtotalLabel, Priority.ALWAYS);
         subtotalRow.getChildren().addAll(subtotalLabel, subtotalValue);
 
+        HBox comboRow = new HBox();
+        comboRow.setAlignment(Pos.CENTER_RIGHT);
+        Label comboLabel = new Label();
+        Label comboValue = new Label();
+        comboValue.setStyle("-fx-font-weight: bold; -fx-text-fill: #16a34a;");
+        HBox.setHgrow(comboLabel, Priority.ALWAYS);
+        comboRow.getChildren().addAll(comboLabel, comboValue);
+
+        HBox couponRow = new HBox();
+        couponRow.setAlignment(Pos.CENTER_RIGHT);
+        Label couponLabel = new Label();
+        Label couponValue = new Label();
+        couponValue.setStyle("-fx-font-weight: bold; -fx-text-fill: #16a34a;");
+        HBox.setHgrow(couponLabel, Priority.ALWAYS);
+        couponRow.getChildren().addAll(couponLabel, couponValue);
+
         HBox taxRow = new HBox();
         taxRow.setAlignment(Pos.CENTER_RIGHT);
-        Label taxLabel = new Label("Tax (8%):");
-        Label taxValue = new Label("$" + String.format("%.2f", tax));
+        Label taxLabel = new Label();
+        Label taxValue = new Label();
         taxValue.setStyle("-fx-font-weight: bold;");
         HBox.setHgrow(taxLabel, Priority.ALWAYS);
         taxRow.getChildren().addAll(taxLabel, taxValue);
@@ -103,12 +118,21 @@ public class CartWindow {
         totalRow.setAlignment(Pos.CENTER_RIGHT);
         Label totalLabel = new Label("Total:");
         totalLabel.setStyle("-fx-font-size: 20px; -fx-font-weight: bold;");
-        Label totalValue = new Label("$" + String.format("%.2f", total));
+        Label totalValue = new Label();
         totalValue.setStyle("-fx-font-size: 20px; -fx-font-weight: bold; -fx-text-fill: #dc2626;");
         HBox.setHgrow(totalLabel, Priority.ALWAYS);
         totalRow.getChildren().addAll(totalLabel, totalValue);
 
-        summaryBox.getChildren().addAll(subtotalRow, taxRow, totalRow);
+        HBox couponBox = new HBox(10);
+        couponBox.setAlignment(Pos.CENTER_LEFT);
+        TextField couponField = new TextField(currentOrder.getCouponCode() != null ? currentOrder.getCouponCode() : "");
+        couponField.setPromptText("Coupon code");
+        Button applyCouponButton = new Button("Apply");
+        Label couponStatus = new Label();
+        couponStatus.setStyle("-fx-font-size: 12px; -fx-text-fill: #6b7280;");
+        couponBox.getChildren().addAll(couponField, applyCouponButton, couponStatus);
+
+        summaryBox.getChildren().addAll(subtotalRow, comboRow, couponRow, taxRow, totalRow, couponBox);
         centerBox.getChildren().add(summaryBox);
 
         Label deliveryLabel = new Label("Delivery and Payment Info");
@@ -165,6 +189,31 @@ public class CartWindow {
         deliveryMethodBox.getChildren().addAll(deliveryMethodLabel, pickupRadio, deliveryRadio);
         centerBox.getChildren().add(deliveryMethodBox);
 
+        // Re-quoted by the rule engine whenever the coupon, delivery method or address changes
+        Runnable refreshSummary = () -> {
+            CartQuote quote = quote(deliveryRadio.isSelected(), addressField.getText());
+            subtotalValue.setText("$" + Money.format(quote.getSubtotalCents()));
+            showRow(comboRow, quote.getComboDiscountCents() > 0);
+            comboLabel.setText(comboSummary(quote.getAppliedCombos()) + ":");
+            comboValue.setText("-$" + Money.format(quote.getComboDiscountCents()));
+            showRow(couponRow, quote.getCouponDiscountCents() > 0);
+            couponLabel.setText("Coupon " + (quote.getCoupon() != null ? quote.getCoupon().getCode() : "") + ":");
+            couponValue.setText("-$" + Money.format(quote.getCouponDiscountCents()));
+            taxLabel.setText(quote.getTaxLabel() + ":");
+            taxValue.setText("$" + Money.format(quote.getTaxCents()));
+            totalValue.setText("$" + Money.format(quote.getTotalCents()));
+            couponStatus.setText(couponMessage(quote));
+        };
+        applyCouponButton.setOnAction(e -> {
+            currentOrder.setCouponCode(couponField.getText().trim());
+            refreshSummary.run();
+            headerInfo.updateCartButton();
+        });
+        couponField.setOnAction(e -> applyCouponButton.fire());
+        deliveryGroup.selectedToggleProperty().addListener((obs, oldVal, newVal) -> refreshSummary.run());
+        addressField.textProperty().addListener((obs, oldVal, newVal) -> refreshSummary.run());
+        refreshSummary.run();
+
         // Demo Application Warning
         VBox demoWarningBox = new VBox(10);
         demoWarningBox.setPadding(new Insets(15));
@@ -247,6 +296,16 @@ public class CartWindow {
                 currentOrder.setOrderType("pickup");
             }
             
+            // A code typed but not applied still counts; one that can't be used is sent back to the customer
+            currentOrder.setCouponCode(couponField.getText().trim());
+            CartQuote quote = quote(deliveryRadio.isSelected(), addressField.getText());
+            if (quote.getCouponStatus() == CartQuote.CouponStatus.UNKNOWN
+                    || quote.getCouponStatus() == CartQuote.CouponStatus.BELOW_MINIMUM) {
+                refreshSummary.run();
+                showAlert(couponMessage(quote));
+                return;
+            }
+
             // Set customer information
             if (!nameField.getText().trim().isEmpty()) {
                 currentOrder.setCustomerName(nameField.getText().trim());
@@ -261,19 +320,8 @@ public class CartWindow {
             }
             currentOrder.setPaymentMethod(paymentMethod);
             
-            // Update order items and totals
-            currentOrder.getItems().clear();
-            for (OrderItem item : cartItems) {
-                currentOrder.addItem(item);
-            }
-            // Ensure totals are calculated (addItem should do this, but ensure it's done)
-            // Recalculate totals in case they weren't updated
-            double calculatedSubtotal = cartItems.stream().mapToDouble(OrderItem::getTotalPrice).sum();
-            double calculatedTax = calculatedSubtotal * 0.08;
-            double calculatedTotal = calculatedSubtotal + calculatedTax;
-            currentOrder.setSubtotal(calculatedSubtotal);
-            currentOrder.setTax(calculatedTax);
-            currentOrder.setTotalAmount(calculatedTotal);
+            // Update order items; replaceItems reprices the order through the rule engine
+            currentOrder.replaceItems(cartItems);
             
             // Ensure order status is set to pending
             currentOrder.setStatus("pending");
@@ -356,7 +404,7 @@ public class CartWindow {
             if (item.getToppings() != null && !item.getToppings().isEmpty()) {
                 List<String> toppingNames = new ArrayList<>();
                 for (String toppingId : item.getToppings()) {
-                    Topping topping = MenuData.getToppingById(toppingId);
+                    Topping topping = currentOrder.getMenu().getTopping(toppingId);
                     if (topping != null) {
                         toppingNames.add(topping.getName());
                     } else {
@@ -392,7 +440,7 @@ public class CartWindow {
         quantitySpinner.valueProperty().addListener((obs, oldVal, newVal) -> {
             if (finalIndex < cartItems.size()) {
                 OrderItem currentItem = cartItems.get(finalIndex);
-                OrderItem updatedItem = new OrderItem(currentItem.getType(), currentItem.getName(), currentItem.getUnitPrice(), newVal);
+                OrderItem updatedItem = new OrderItem(currentItem.getType(), currentItem.getName(), currentItem.getUnitPriceCents(), newVal);
                 updatedItem.setPizzaSize(currentItem.getPizzaSize());
                 updatedItem.setCrustType(currentItem.getCrustType());
                 updatedItem.setToppings(currentItem.getToppings());
@@ -406,7 +454,7 @@ public class CartWindow {
             }
         });
 
-        Label priceLabel = new Label("$" + String.format("%.2f", item.getTotalPrice()));
+        Label priceLabel = new Label("$" + Money.format(item.getTotalPriceCents()));
         priceLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-min-width: 80;");
 
         Button removeButton = new Button("Remove");
@@ -423,11 +471,44 @@ public class CartWindow {
         return row;
     }
 
-    private void updateCart() {
-        currentOrder = new Order("ORD-" + System.currentTimeMillis(), "guest");
-        for (OrderItem item : cartItems) {
-            currentOrder.addItem(item);
+    private CartQuote quote(boolean delivery, String address) {
+        return currentOrder.getMenu().getRules().quote(cartItems, delivery ? "delivery" : "pickup",
+                                                       delivery ? address : null, currentOrder.getCouponCode());
+    }
+
+    // "Pizza + Drink Combo x2, Family Deal"
+    private static String comboSummary(List<String> applied) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String name : applied) {
+            counts.merge(name, 1, Integer::sum);
+        }
+        List<String> parts = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            parts.add(entry.getValue() > 1 ? entry.getKey() + " x" + entry.getValue() : entry.getKey());
+        }
+        return String.join(", ", parts);
+    }
+
+    private static String couponMessage(CartQuote quote) {
+        switch (quote.getCouponStatus()) {
+            case APPLIED:
+                return quote.getCoupon().getDescription();
+            case UNKNOWN:
+                return "That coupon code isn't valid";
+            case BELOW_MINIMUM:
+                return quote.getCoupon().getCode() + " needs a subtotal of $" + Money.format(quote.getCoupon().getMinimumSubtotalCents());
+            default:
+                return "";
         }
+    }
+
+    private static void showRow(HBox row, boolean show) {
+        row.setVisible(show);
+        row.setManaged(show);
+    }
+
+    private void updateCart() {
+        currentOrder.replaceItems(cartItems);
         if (headerInfo != null) {
             headerInfo.updateCartItems(cartItems);
         }
@@ -1,7 +1,10 @@
 package com.tmse.pizza.gui;
 
+import com.tmse.pizza.models.MenuData;
+import com.tmse.pizza.models.Money;
 import com.tmse.pizza.models.Order;
 import com.tmse.pizza.models.OrderItem;
+import com.tmse.pizza.storage.OrderIdGenerator;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
@@ -25,11 +28,13 @@ public class CommonLayout {
     public static class HeaderInfo {
         private VBox headerContainer;
         private Button cartButton;
+        private Order order;
         List<OrderItem> cartItems; // Package-private so cart button action can access it
         
-        public HeaderInfo(VBox headerContainer, Button cartButton, List<OrderItem> cartItems) {
+        public HeaderInfo(VBox headerContainer, Button cartButton, Order order, List<OrderItem> cartItems) {
             this.headerContainer = headerContainer;
             this.cartButton = cartButton;
+            this.order = order;
             this.cartItems = cartItems;
         }
         
@@ -44,8 +49,7 @@ public class CommonLayout {
         // Update the cart button text with current cart total
         public void updateCartButton() {
             if (cartButton != null) {
-                double cartTotal = cartItems != null ? cartItems.stream().mapToDouble(OrderItem::getTotalPrice).sum() : 0.0;
-                cartButton.setText("Cart: $" + String.format("%.2f", cartTotal));
+                cartButton.setText("Cart: $" + Money.format(cartTotalCents(order, cartItems)));
             }
         }
         
@@ -101,7 +105,7 @@ public class CommonLayout {
             : "-fx-font-size: 14px; -fx-font-weight: bold; -fx-text-fill: white; -fx-background-color: transparent;";
         builderButton.setStyle(builderStyle);
         builderButton.setOnAction(e -> {
-            Order orderToUse = finalOrder != null ? finalOrder : new Order("ORD-" + System.currentTimeMillis(), "guest");
+            Order orderToUse = finalOrder != null ? finalOrder : new Order(OrderIdGenerator.nextOrderId(), "guest");
             List<OrderItem> itemsToUse = finalCartItems != null ? finalCartItems : new java.util.ArrayList<>();
             PizzaBuilderWindow builderWindow = new PizzaBuilderWindow(stage, orderToUse, itemsToUse);
             builderWindow.show();
@@ -143,8 +147,7 @@ public class CommonLayout {
             : "-fx-font-size: 14px; -fx-font-weight: bold; -fx-text-fill: white; -fx-background-color: rgba(255,255,255,0.2); -fx-padding: 8 15; -fx-background-radius: 5;";
         cartButton.setStyle(cartStyle);
         
-        double cartTotal = cartItems != null ? cartItems.stream().mapToDouble(OrderItem::getTotalPrice).sum() : 0.0;
-        cartButton.setText("Cart: $" + String.format("%.2f", cartTotal));
+        cartButton.setText("Cart: $" + Money.format(cartTotalCents(currentOrder, cartItems)));
         
         headerBox.getChildren().addAll(menuButton, builderButton, aboutButton, reviewsButton, loginButton, cartButton);
         
@@ -156,12 +159,12 @@ public class CommonLayout {
         headerContainer.getChildren().addAll(headerBox, navBox);
         
         // Create HeaderInfo first
-        HeaderInfo headerInfo = new HeaderInfo(headerContainer, cartButton, cartItems);
+        HeaderInfo headerInfo = new HeaderInfo(headerContainer, cartButton, currentOrder, cartItems);
         
         // Set cart button action to use current cart items from HeaderInfo
         cartButton.setOnAction(e -> {
             List<OrderItem> currentCartItems = headerInfo.cartItems != null ? headerInfo.cartItems : new java.util.ArrayList<>();
-            Order currentOrderForCart = finalOrder != null ? finalOrder : new Order("ORD-" + System.currentTimeMillis(), "guest");
+            Order currentOrderForCart = finalOrder != null ? finalOrder : new Order(OrderIdGenerator.nextOrderId(), "guest");
             CartWindow cartWindow = new CartWindow(stage, currentOrderForCart, currentCartItems, () -> {});
             cartWindow.show();
         });
@@ -169,6 +172,15 @@ public class CommonLayout {
         return headerInfo;
     }
     
+    // What the cart would cost now, with combos, the order's coupon and tax, quoted by the rule engine
+    private static long cartTotalCents(Order order, List<OrderItem> cartItems) {
+        if (cartItems == null || cartItems.isEmpty()) return 0;
+        if (order == null) {
+            return MenuData.getCatalog().getRules().quote(cartItems, null, null, null).getTotalCents();
+        }
+        return order.getMenu().getRules().quote(cartItems, order.getOrderType(), order.getDeliveryAddress(), order.getCouponCode()).getTotalCents();
+    }
+
     public static VBox createFooter(Stage stage, Order currentOrder, List<OrderItem> cartItems) {
         VBox footerBox = new VBox(10);
         footerBox.setPadding(new Insets(20));
@@ -180,7 +192,7 @@ public class CommonLayout {
         HBox linksBox = new HBox(20);
         linksBox.setAlignment(Pos.CENTER);
         
-        final Order finalOrder = currentOrder != null ? currentOrder : new Order("ORD-" + System.currentTimeMillis(), "guest");
+        final Order finalOrder = currentOrder != null ? currentOrder : new Order(OrderIdGenerator.nextOrderId(), "guest");
         final List<OrderItem> finalCartItems = cartItems != null ? cartItems : new java.util.ArrayList<>();
         
         Label aboutLink = new Label("About Us");
@@ -2,8 +2,9 @@ package com.tmse.pizza.gui;
 
 import com.tmse.pizza.models.*;
 import com.tmse.pizza.storage.FileStorage;
+import com.tmse.pizza.storage.OrderChange;
+import com.tmse.pizza.storage.StorageService;
 import java.util.ArrayList;
-import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -14,7 +15,6 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
 
-import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
@@ -104,6 +104,47 @@ public class DriverWindow {
         refreshMyDeliveries();
         refreshTips();
         refreshStats();
+        // Orders other drivers claim or the kitchen marks ready show up without a refresh,
+        // until the window is left by any route
+        FxAsync.subscribeToOrders(scene, this::applyOrderChange);
+    }
+
+    private void applyOrderChange(OrderChange change) {
+        switch (change.getType()) {
+            case SAVED:
+                Order order = change.getOrder();
+                if (isAvailableDelivery(order)) {
+                    OrderListPatch.upsert(availableOrdersTable, order);
+                } else {
+                    OrderListPatch.remove(availableOrdersTable, order.getOrderId());
+                }
+                if (currentUser.getUsername().equals(order.getAssignedDriverId())) {
+                    OrderListPatch.upsert(myDeliveriesTable, order);
+                } else {
+                    OrderListPatch.remove(myDeliveriesTable, order.getOrderId());
+                }
+                refreshStats();
+                break;
+            case REMOVED:
+                OrderListPatch.remove(availableOrdersTable, change.getOrderId());
+                OrderListPatch.remove(myDeliveriesTable, change.getOrderId());
+                refreshStats();
+                break;
+            case RELOADED:
+                refreshAvailableOrders();
+                refreshMyDeliveries();
+                break;
+        }
+    }
+
+    // Same rule storage uses for the available list: ready delivery orders nobody has claimed
+    private static boolean isAvailableDelivery(Order order) {
+        String status = order.getStatus();
+        String type = order.getOrderType();
+        String driver = order.getAssignedDriverId();
+        return status != null && "ready".equalsIgnoreCase(status.trim())
+            && type != null && "delivery".equalsIgnoreCase(type.trim())
+            && (driver == null || driver.trim().isEmpty());
     }
 
     private VBox createAvailableOrdersTab() {
@@ -150,7 +191,7 @@ public class DriverWindow {
 
         TableColumn<Order, String> totalCol = new TableColumn<>("Total");
         totalCol.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty("$" + String.format("%.2f", cellData.getValue().getTotal())));
+            new javafx.beans.property.SimpleStringProperty("$" + Money.format(cellData.getValue().getTotalCents())));
 
         TableColumn<Order, String> statusCol = new TableColumn<>("Status");
         statusCol.setCellValueFactory(new PropertyValueFactory<>("status"));
@@ -251,7 +292,7 @@ public class DriverWindow {
 
         TableColumn<Order, String> totalCol = new TableColumn<>("Total");
         totalCol.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty("$" + String.format("%.2f", cellData.getValue().getTotal())));
+            new javafx.beans.property.SimpleStringProperty("$" + Money.format(cellData.getValue().getTotalCents())));
 
         TableColumn<Order, String> statusCol = new TableColumn<>("Status");
         statusCol.setCellValueFactory(new PropertyValueFactory<>("status"));
@@ -278,8 +319,9 @@ public class DriverWindow {
                     String tipText = tipField.getText().trim();
                     if (!tipText.isEmpty()) {
                         try {
-                            double tipAmount = Double.parseDouble(tipText);
-                            saveTip(order.getOrderId(), tipAmount);
+                            long tipCents = Money.parse(tipText);
+                            if (tipCents < 0) throw new NumberFormatException(tipText);
+                            saveTip(order.getOrderId(), tipCents);
                             tipField.clear();
                         } catch (NumberFormatException ex) {
                             showAlert("Please enter a valid number");
@@ -340,6 +382,10 @@ public class DriverWindow {
         totalTipsLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: #10b981;");
         this.totalTipsLabel = totalTipsLabel;
 
+        Label shiftTipsLabel = new Label("This Shift: $0.00    This Week: $0.00");
+        shiftTipsLabel.setStyle("-fx-font-size: 14px; -fx-font-weight: bold; -fx-text-fill: #059669;");
+        this.shiftTipsLabel = shiftTipsLabel;
+
         tipsTable = new TableView<>();
         tipsTable.setItems(tipsList);
         tipsTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
@@ -350,7 +396,7 @@ public class DriverWindow {
 
         TableColumn<FileStorage.TipRecord, String> amountCol = new TableColumn<>("Tip Amount");
         amountCol.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty("$" + String.format("%.2f", cellData.getValue().getAmount())));
+            new javafx.beans.property.SimpleStringProperty("$" + Money.format(cellData.getValue().getAmountCents())));
 
         TableColumn<FileStorage.TipRecord, String> dateCol = new TableColumn<>("Date");
         dateCol.setCellValueFactory(cellData -> 
@@ -364,16 +410,14 @@ public class DriverWindow {
 
         Button refreshButton = new Button("Refresh");
         refreshButton.setStyle("-fx-background-color: #3b82f6; -fx-text-fill: white; -fx-padding: 8 15;");
-        refreshButton.setOnAction(e -> {
-            refreshTips();
-            updateTotalTips();
-        });
+        refreshButton.setOnAction(e -> refreshTips());
 
-        vbox.getChildren().addAll(titleLabel, totalTipsLabel, refreshButton, scrollPane);
+        vbox.getChildren().addAll(titleLabel, totalTipsLabel, shiftTipsLabel, refreshButton, scrollPane);
         return vbox;
     }
 
     private Label totalTipsLabel;
+    private Label shiftTipsLabel;
 
     private void showOrderDetails(Order order) {
         StringBuilder details = new StringBuilder();
@@ -383,7 +427,7 @@ public class DriverWindow {
         details.append("Customer: ").append(order.getCustomerName() != null ? order.getCustomerName() : order.getUsername()).append("\n");
         details.append("Delivery Address: ").append(order.getDeliveryAddress() != null ? order.getDeliveryAddress() : "N/A").append("\n");
         details.append("Status: ").append(order.getStatus()).append("\n");
-        details.append("Total: $").append(String.format("%.2f", order.getTotal())).append("\n\n");
+        details.append("Total: $").append(Money.format(order.getTotalCents())).append("\n\n");
         details.append("Items:\n");
         for (OrderItem item : order.getItems()) {
             details.append("- ").append(item.getQuantity()).append("x ").append(item.getName());
@@ -427,83 +471,72 @@ public class DriverWindow {
         
         confirmAlert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                order.setAssignedDriverId(currentUser.getUsername());
-                order.setAssignedDriverName(currentUser.getUsername());
-                order.setStatus("out-for-delivery");
-                
-                try {
-                    FileStorage.updateOrder(order);
-                    showAlert("Order claimed successfully!");
+                // The order feed moves the row between the two tables
+                FxAsync.onFxThread(StorageService.claimOrder(order.getOrderId(), currentUser.getUsername()), claimed -> {
+                    showAlert(claimed ? "Order claimed successfully!" : "This order has already been claimed by another driver.");
+                }, ex -> {
+                    showAlert("Error claiming order: " + ex.getMessage());
                     refreshAvailableOrders();
                     refreshMyDeliveries();
-                } catch (IOException ex) {
-                    showAlert("Error claiming order: " + ex.getMessage());
-                }
+                });
             }
         });
     }
 
     private void completeDelivery(Order order) {
-        order.setStatus("delivered");
+        // Saved from a copy; the row is replaced when the order feed delivers the saved order
+        Order delivered = order.copy();
+        delivered.setStatus("delivered");
         
-        try {
-            FileStorage.updateOrder(order);
+        FxAsync.onFxThread(StorageService.updateOrder(delivered), done -> {
             showAlert("Delivery completed!");
-            refreshMyDeliveries();
-            refreshAvailableOrders();
-        } catch (IOException ex) {
+        }, ex -> {
             showAlert("Error completing delivery: " + ex.getMessage());
-        }
+            refreshAvailableOrders();
+            refreshMyDeliveries();
+        });
     }
 
-    private void saveTip(String orderId, double tipAmount) {
-        try {
-            FileStorage.saveTip(orderId, currentUser.getUsername(), tipAmount);
+    private void saveTip(String orderId, long tipCents) {
+        FxAsync.onFxThread(StorageService.saveTip(orderId, currentUser.getUsername(), tipCents), done -> {
             showAlert("Tip saved!");
             refreshTips();
-            updateTotalTips();
-        } catch (IOException ex) {
-            showAlert("Error saving tip: " + ex.getMessage());
-        }
+        }, ex -> showAlert("Error saving tip: " + ex.getMessage()));
     }
 
     private void refreshAvailableOrders() {
-        try {
-            List<Order> available = FileStorage.getAvailableDeliveryOrders();
-            availableOrdersList.setAll(available);
-            // Debug: Log how many orders were found
-            if (available.isEmpty()) {
-                // Try to see what orders exist
-                List<Order> allOrders = FileStorage.getAllOrders();
-                long readyDeliveryCount = allOrders.stream()
-                    .filter(o -> "delivery".equalsIgnoreCase(o.getOrderType()))
-                    .filter(o -> "ready".equalsIgnoreCase(o.getStatus()))
-                    .filter(o -> (o.getAssignedDriverId() == null || o.getAssignedDriverId().trim().isEmpty()))
-                    .count();
-                // Don't show alert, just silently refresh
-            }
-        } catch (IOException ex) {
+        FxAsync.setLoading(availableOrdersTable, true);
+        FxAsync.onFxThread(StorageService.getAvailableDeliveryOrders(), available -> {
+            OrderListPatch.apply(availableOrdersTable, available);
+            FxAsync.setLoading(availableOrdersTable, false);
+        }, ex -> {
+            FxAsync.setLoading(availableOrdersTable, false);
             showAlert("Error loading available orders: " + ex.getMessage());
-        }
+        });
     }
 
     private void refreshMyDeliveries() {
-        try {
-            List<Order> myOrders = FileStorage.getOrdersByDriver(currentUser.getUsername());
-            myDeliveriesList.setAll(myOrders);
+        FxAsync.setLoading(myDeliveriesTable, true);
+        FxAsync.onFxThread(StorageService.getOrdersByDriver(currentUser.getUsername()), myOrders -> {
+            OrderListPatch.apply(myDeliveriesTable, myOrders);
+            FxAsync.setLoading(myDeliveriesTable, false);
             refreshStats();
-        } catch (IOException ex) {
+        }, ex -> {
+            FxAsync.setLoading(myDeliveriesTable, false);
             showAlert("Error loading deliveries: " + ex.getMessage());
-        }
+        });
     }
 
     private void refreshTips() {
-        try {
-            List<FileStorage.TipRecord> tips = FileStorage.getTipsByDriver(currentUser.getUsername());
+        FxAsync.setLoading(tipsTable, true);
+        FxAsync.onFxThread(StorageService.getTipsByDriver(currentUser.getUsername()), tips -> {
             tipsList.setAll(tips);
-        } catch (IOException ex) {
+            FxAsync.setLoading(tipsTable, false);
+            updateTotalTips();
+        }, ex -> {
+            FxAsync.setLoading(tipsTable, false);
             showAlert("Error loading tips: " + ex.getMessage());
-        }
+        });
     }
 
     private void refreshStats() {
@@ -529,13 +562,17 @@ public class DriverWindow {
         }
     }
 
+    // Totals come from the ledger's running sums rather than re-adding the table
     private void updateTotalTips() {
-        double total = tipsList.stream()
-            .mapToDouble(FileStorage.TipRecord::getAmount)
-            .sum();
-        if (totalTipsLabel != null) {
-            totalTipsLabel.setText("Total Tips: $" + String.format("%.2f", total));
-        }
+        FxAsync.onFxThread(StorageService.getTipSummary(currentUser.getUsername()), summary -> {
+            if (totalTipsLabel != null) {
+                totalTipsLabel.setText("Total Tips: $" + Money.format(summary.getLifetimeCents()));
+            }
+            if (shiftTipsLabel != null) {
+                shiftTipsLabel.setText("This Shift: $" + Money.format(summary.getTodayCents()) +
+                                       "    This Week: $" + Money.format(summary.getWeekCents()));
+            }
+        }, ex -> showAlert("Error loading tip totals: " + ex.getMessage()));
     }
 
     private Label createStatCard(String label, String value, String color) {
@@ -0,0 +1,63 @@
+package com.tmse.pizza.gui;
+
+import com.tmse.pizza.storage.FileStorage;
+import com.tmse.pizza.storage.OrderChange;
+import com.tmse.pizza.storage.OrderFeed;
+import com.tmse.pizza.storage.StorageService;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableView;
+import javafx.stage.Window;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+// Applies the result of background storage work back on the JavaFX Application Thread
+final class FxAsync {
+    private FxAsync() {
+    }
+
+    static <T> void onFxThread(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        future.whenComplete((result, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                onError.accept(StorageService.unwrap(error));
+            } else {
+                onSuccess.accept(result);
+            }
+        }));
+    }
+
+    // Delivers order changes on the FX thread for as long as the scene is on screen. Replacing the
+    // window's scene or hiding the window cancels the subscription, however the window was left.
+    static void subscribeToOrders(Scene scene, Consumer<OrderChange> onChange) {
+        Window window = scene.getWindow();
+        boolean[] live = {true};
+        OrderFeed.Subscription subscription = FileStorage.subscribeToOrders(change -> Platform.runLater(() -> {
+            if (live[0]) onChange.accept(change);
+        }));
+        Runnable[] cancel = new Runnable[1];
+        ChangeListener<Window> sceneMoved = (obs, old, now) -> {
+            if (now != window) cancel[0].run();
+        };
+        ChangeListener<Boolean> hidden = (obs, was, showing) -> {
+            if (!showing) cancel[0].run();
+        };
+        cancel[0] = () -> {
+            live[0] = false;
+            subscription.cancel();
+            scene.windowProperty().removeListener(sceneMoved);
+            if (window != null) window.showingProperty().removeListener(hidden);
+        };
+        scene.windowProperty().addListener(sceneMoved);
+        if (window != null) window.showingProperty().addListener(hidden);
+    }
+
+    // Shows a loading placeholder in an empty table while its rows are fetched
+    static void setLoading(TableView<?> table, boolean loading) {
+        if (table != null) {
+            table.setPlaceholder(loading ? new Label("Loading...") : null);
+        }
+    }
+}
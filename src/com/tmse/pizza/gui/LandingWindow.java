@@ -1,6 +1,7 @@
 package com.tmse.pizza.gui;
 
 import com.tmse.pizza.models.*;
+import com.tmse.pizza.storage.OrderIdGenerator;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -33,7 +34,7 @@ public class LandingWindow {
         if (order != null) {
             this.currentOrder = order;
         } else {
-            this.currentOrder = new Order("ORD-" + System.currentTimeMillis(), "guest");
+            this.currentOrder = new Order(OrderIdGenerator.nextOrderId(), "guest");
         }
     }
 
@@ -103,7 +104,7 @@ public class LandingWindow {
         pizzaListBox.setPadding(new Insets(10));
         
         List<Pizza> regularPizzas = new ArrayList<>();
-        for (Pizza pizza : MenuData.getPizzas()) {
+        for (Pizza pizza : currentOrder.getMenu().getPizzas()) {
             if (!pizza.getId().equals("build-your-own") && 
                 !pizza.getId().equals("cowabunga-classic") &&
                 !pizza.getId().equals("shredder-supreme") &&
@@ -159,7 +160,7 @@ public class LandingWindow {
         pizzaListBox.setPadding(new Insets(10));
         
         List<Pizza> specialtyPizzas = new ArrayList<>();
-        for (Pizza pizza : MenuData.getPizzas()) {
+        for (Pizza pizza : currentOrder.getMenu().getPizzas()) {
             if (pizza.getId().equals("cowabunga-classic") ||
                 pizza.getId().equals("shredder-supreme") ||
                 pizza.getId().equals("mutant-veggie-melt") ||
@@ -207,7 +208,7 @@ public class LandingWindow {
         VBox beverageListBox = new VBox(10);
         beverageListBox.setPadding(new Insets(10));
 
-        for (Beverage beverage : MenuData.getBeverages()) {
+        for (Beverage beverage : currentOrder.getMenu().getBeverages()) {
             HBox beverageBox = createBeverageCard(beverage, sizeGroup);
             beverageListBox.getChildren().add(beverageBox);
         }
@@ -244,25 +245,14 @@ public class LandingWindow {
         RadioButton selectedSize = (RadioButton) sizeGroup.getSelectedToggle();
         PizzaSize size = selectedSize != null ? (PizzaSize) selectedSize.getUserData() : PizzaSize.MEDIUM;
         
-        // Calculate toppings price (must be final for lambda)
-        final double toppingsPrice;
-        if (pizza.getDefaultToppings() != null) {
-            double tempToppingsPrice = 0.0;
-            for (String toppingId : pizza.getDefaultToppings()) {
-                Topping topping = MenuData.getToppingById(toppingId);
-                if (topping != null) {
-                    tempToppingsPrice += topping.getPrice();
-                }
-            }
-            toppingsPrice = tempToppingsPrice;
-        } else {
-            toppingsPrice = 0.0;
-        }
-        double price = pizza.getBasePrice() + size.getPrice() + toppingsPrice;
+        // The default toppings never change, so their bitset is worked out once per card
+        PricingEngine pricing = currentOrder.getMenu().getPricing();
+        long toppings = pricing.toppingBits(pizza.getDefaultToppings());
+        long price = pricing.pizzaCents(pizza, size, CrustType.HAND_TOSSED, toppings);
         
         HBox priceBox = new HBox(10);
         priceBox.setAlignment(Pos.CENTER_LEFT);
-        Label priceLabel = new Label("$" + String.format("%.2f", price));
+        Label priceLabel = new Label("$" + Money.format(price));
         priceLabel.setStyle("-fx-font-size: 20px; -fx-font-weight: bold; -fx-text-fill: #dc2626;");
         
         // Update price when size changes
@@ -270,8 +260,8 @@ public class LandingWindow {
             if (newVal != null) {
                 RadioButton newSize = (RadioButton) newVal;
                 PizzaSize newSizeValue = (PizzaSize) newSize.getUserData();
-                double newPrice = pizza.getBasePrice() + newSizeValue.getPrice() + toppingsPrice;
-                priceLabel.setText("$" + String.format("%.2f", newPrice));
+                long newPrice = pricing.pizzaCents(pizza, newSizeValue, CrustType.HAND_TOSSED, toppings);
+                priceLabel.setText("$" + Money.format(newPrice));
             }
         });
         
@@ -281,16 +271,7 @@ public class LandingWindow {
         addButton.setOnAction(e -> {
             RadioButton currentSize = (RadioButton) sizeGroup.getSelectedToggle();
             PizzaSize currentSizeValue = currentSize != null ? (PizzaSize) currentSize.getUserData() : PizzaSize.MEDIUM;
-            double currentToppingsPrice = 0.0;
-            if (pizza.getDefaultToppings() != null) {
-                for (String toppingId : pizza.getDefaultToppings()) {
-                    Topping topping = MenuData.getToppingById(toppingId);
-                    if (topping != null) {
-                        currentToppingsPrice += topping.getPrice();
-                    }
-                }
-            }
-            double currentPrice = pizza.getBasePrice() + currentSizeValue.getPrice() + currentToppingsPrice;
+            long currentPrice = pricing.pizzaCents(pizza, currentSizeValue, CrustType.HAND_TOSSED, toppings);
             
             OrderItem item = new OrderItem("pizza", pizza.getName(), currentPrice, 1);
             item.setPizzaSize(currentSizeValue);
@@ -334,7 +315,7 @@ public class LandingWindow {
         pane.getChildren().addAll(crust, pizzaBase, cheese);
 
         for (String toppingId : toppings) {
-            Topping topping = MenuData.getToppingById(toppingId);
+            Topping topping = currentOrder.getMenu().getTopping(toppingId);
             if (topping != null) {
                 java.util.Random random = new java.util.Random(toppingId.hashCode());
                 int count = 6 + random.nextInt(10);
@@ -414,11 +395,12 @@ public class LandingWindow {
 
         RadioButton selectedSize = (RadioButton) sizeGroup.getSelectedToggle();
         BeverageSize size = selectedSize != null ? (BeverageSize) selectedSize.getUserData() : BeverageSize.MEDIUM;
-        double price = beverage.getPrice(size);
+        PricingEngine pricing = currentOrder.getMenu().getPricing();
+        long price = pricing.beverageCents(beverage, size);
         
         HBox priceBox = new HBox(10);
         priceBox.setAlignment(Pos.CENTER_LEFT);
-        Label priceLabel = new Label("$" + String.format("%.2f", price));
+        Label priceLabel = new Label("$" + Money.format(price));
         priceLabel.setStyle("-fx-font-size: 20px; -fx-font-weight: bold; -fx-text-fill: #dc2626;");
         
         // Update price when size changes
@@ -426,8 +408,8 @@ public class LandingWindow {
             if (newVal != null) {
                 RadioButton newSize = (RadioButton) newVal;
                 BeverageSize newSizeValue = (BeverageSize) newSize.getUserData();
-                double newPrice = beverage.getPrice(newSizeValue);
-                priceLabel.setText("$" + String.format("%.2f", newPrice));
+                long newPrice = pricing.beverageCents(beverage, newSizeValue);
+                priceLabel.setText("$" + Money.format(newPrice));
             }
         });
         
@@ -437,7 +419,7 @@ public class LandingWindow {
         addButton.setOnAction(e -> {
             RadioButton currentSize = (RadioButton) sizeGroup.getSelectedToggle();
             BeverageSize currentSizeValue = currentSize != null ? (BeverageSize) currentSize.getUserData() : BeverageSize.MEDIUM;
-            double currentPrice = beverage.getPrice(currentSizeValue);
+            long currentPrice = pricing.beverageCents(beverage, currentSizeValue);
             
             OrderItem item = new OrderItem("beverage", beverage.getName(), currentPrice, 1);
             item.setBeverageSize(currentSizeValue);
@@ -2,7 +2,8 @@ package com.tmse.pizza.gui;
 
 import com.tmse.pizza.models.Order;
 import com.tmse.pizza.models.User;
-import com.tmse.pizza.storage.FileStorage;
+import com.tmse.pizza.storage.OrderIdGenerator;
+import com.tmse.pizza.storage.StorageService;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -11,20 +12,26 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
 
-import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 // Login window for user authentication
 public class LoginWindow {
     private Stage stage;
     private User currentUser;
+    // The demo accounts are created in the background; logins and sign-ups wait for it to finish
+    private final CompletableFuture<Void> defaultUsers;
 
     public LoginWindow(Stage primaryStage) {
         this.stage = primaryStage;
-        try {
-            FileStorage.initializeDefaultUsers();
-        } catch (IOException e) {
-            showError("Error initializing users: " + e.getMessage());
-        }
+        this.defaultUsers = StorageService.initializeDefaultUsers();
+        FxAsync.onFxThread(defaultUsers, done -> { },
+            e -> showError("Error initializing users: " + e.getMessage()));
+    }
+
+    // Runs the call once the default users exist, or once creating them has failed (that error is already shown)
+    private <T> CompletableFuture<T> afterDefaultUsers(Supplier<CompletableFuture<T>> call) {
+        return defaultUsers.handle((done, e) -> null).thenCompose(ignored -> call.get());
     }
 
     public void show() {
@@ -122,17 +129,15 @@ public class LoginWindow {
             return;
         }
 
-        try {
-            User user = FileStorage.getUser(username);
-            if (user != null && user.getPassword().equals(password)) {
+        // Password hashing is deliberately slow, so it runs off the FX thread
+        FxAsync.onFxThread(afterDefaultUsers(() -> StorageService.authenticate(username, password)), user -> {
+            if (user != null) {
                 currentUser = user;
                 openMenuWindow();
             } else {
                 showError("Invalid username or password");
             }
-        } catch (IOException ex) {
-            showError("Error: " + ex.getMessage());
-        }
+        }, ex -> showError("Error: " + ex.getMessage()));
     }
     
     private void openMenuWindow() {
@@ -144,7 +149,7 @@ public class LoginWindow {
             driverWindow.show();
         } else {
             // Customers should see the landing screen with proper styling
-            Order customerOrder = new Order("ORD-" + System.currentTimeMillis(), currentUser.getUsername());
+            Order customerOrder = new Order(OrderIdGenerator.nextOrderId(), currentUser.getUsername());
             LandingWindow landingWindow = new LandingWindow(stage, customerOrder, new java.util.ArrayList<>());
             landingWindow.show();
         }
@@ -233,18 +238,6 @@ public class LoginWindow {
                     return null;
                 }
                 
-                // Check if username already exists
-                try {
-                    User existingUser = FileStorage.getUser(username);
-                    if (existingUser != null) {
-                        showError("Username already exists. Please choose a different username.");
-                        return null;
-                    }
-                } catch (IOException e) {
-                    showError("Error checking username: " + e.getMessage());
-                    return null;
-                }
-                
                 // Create new user with customer role
                 return new User(username, password, "customer");
             }
@@ -253,17 +246,17 @@ public class LoginWindow {
         
         // Process the result
         java.util.Optional<User> result = dialog.showAndWait();
-        result.ifPresent(user -> {
-            try {
-                FileStorage.saveUser(user);
-                showSuccess("Account created successfully! You can now login with your new account.");
-                // Optionally auto-login the new user
-                currentUser = user;
-                openMenuWindow();
-            } catch (IOException e) {
-                showError("Error creating account: " + e.getMessage());
+        // The duplicate check and the write are one atomic step in storage
+        result.ifPresent(user -> FxAsync.onFxThread(afterDefaultUsers(() -> StorageService.registerUser(user)), created -> {
+            if (!created) {
+                showError("Username already exists. Please choose a different username.");
+                return;
             }
-        });
+            showSuccess("Account created successfully! You can now login with your new account.");
+            // Optionally auto-login the new user
+            currentUser = user;
+            openMenuWindow();
+        }, e -> showError("Error creating account: " + e.getMessage())));
     }
     
     private void showSuccess(String message) {
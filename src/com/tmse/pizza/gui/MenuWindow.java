@@ -1,6 +1,7 @@
 package com.tmse.pizza.gui;
 
 import com.tmse.pizza.models.*;
+import com.tmse.pizza.storage.OrderIdGenerator;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -23,7 +24,7 @@ public class MenuWindow {
         this.stage = primaryStage;
         this.currentUser = user;
         this.cartItems = new ArrayList<>();
-        this.currentOrder = new Order("ORD-" + System.currentTimeMillis(), user.getUsername());
+        this.currentOrder = new Order(OrderIdGenerator.nextOrderId(), user.getUsername());
     }
 
     public void show() {
@@ -33,7 +34,7 @@ public class MenuWindow {
         BorderPane root = new BorderPane();
         root.setStyle("-fx-background-color: #ffffff;");
         
-        Order tempOrder = new Order("ORD-" + System.currentTimeMillis(), currentUser.getUsername());
+        Order tempOrder = new Order(OrderIdGenerator.nextOrderId(), currentUser.getUsername());
         List<OrderItem> tempCart = new ArrayList<>();
         for (OrderItem item : cartItems) {
             tempCart.add(item);
@@ -84,7 +85,7 @@ public class MenuWindow {
         HBox sizeBox = new HBox(10);
         ToggleGroup sizeGroup = new ToggleGroup();
         for (PizzaSize size : PizzaSize.values()) {
-            RadioButton rb = new RadioButton(size.getLabel() + " (+$" + String.format("%.2f", size.getPrice()) + ")");
+            RadioButton rb = new RadioButton(size.getLabel() + " (+$" + Money.format(size.getPriceCents()) + ")");
             rb.setToggleGroup(sizeGroup);
             rb.setUserData(size);
             if (size == PizzaSize.MEDIUM) rb.setSelected(true);
@@ -112,7 +113,7 @@ public class MenuWindow {
         pizzaLabel.setStyle("-fx-font-weight: bold;");
         
         ListView<Pizza> pizzaList = new ListView<>();
-        pizzaList.getItems().addAll(MenuData.getPizzas());
+        pizzaList.getItems().addAll(currentOrder.getMenu().getPizzas());
         pizzaList.setCellFactory(param -> new ListCell<Pizza>() {
             @Override
             protected void updateItem(Pizza pizza, boolean empty) {
@@ -120,7 +121,7 @@ public class MenuWindow {
                 if (empty || pizza == null) {
                     setText(null);
                 } else {
-                    setText(pizza.getName() + " - $" + String.format("%.2f", pizza.getBasePrice()));
+                    setText(pizza.getName() + " - $" + Money.format(pizza.getBasePriceCents()));
                 }
             }
         });
@@ -130,8 +131,8 @@ public class MenuWindow {
         
         VBox toppingsBox = new VBox(5);
         List<CheckBox> toppingCheckboxes = new ArrayList<>();
-        for (Topping topping : MenuData.getToppings()) {
-            CheckBox cb = new CheckBox(topping.getName() + " (+$" + String.format("%.2f", topping.getPrice()) + ")");
+        for (Topping topping : currentOrder.getMenu().getToppings()) {
+            CheckBox cb = new CheckBox(topping.getName() + " (+$" + Money.format(topping.getPriceCents()) + ")");
             cb.setUserData(topping);
             toppingCheckboxes.add(cb);
             toppingsBox.getChildren().add(cb);
@@ -164,11 +165,7 @@ public class MenuWindow {
                 return;
             }
 
-            double toppingsPrice = selectedToppings.stream()
-                .mapToDouble(id -> MenuData.getToppingById(id).getPrice())
-                .sum();
-            
-            double unitPrice = selectedPizza.getBasePrice() + size.getPrice() + toppingsPrice;
+            long unitPrice = currentOrder.getMenu().getPricing().pizzaCents(selectedPizza, size, crust, selectedToppings);
             
             OrderItem item = new OrderItem("pizza", selectedPizza.getName(), unitPrice, 1);
             item.setPizzaSize(size);
@@ -217,7 +214,7 @@ public class MenuWindow {
         beverageLabel.setStyle("-fx-font-weight: bold;");
         
         ListView<Beverage> beverageList = new ListView<>();
-        beverageList.getItems().addAll(MenuData.getBeverages());
+        beverageList.getItems().addAll(currentOrder.getMenu().getBeverages());
         beverageList.setCellFactory(param -> new ListCell<Beverage>() {
             @Override
             protected void updateItem(Beverage beverage, boolean empty) {
@@ -242,7 +239,7 @@ public class MenuWindow {
 
             RadioButton selectedSize = (RadioButton) sizeGroup.getSelectedToggle();
             BeverageSize size = (BeverageSize) selectedSize.getUserData();
-            double price = selectedBeverage.getPrice(size);
+            long price = currentOrder.getMenu().getPricing().beverageCents(selectedBeverage, size);
 
             OrderItem item = new OrderItem("beverage", selectedBeverage.getName(), price, 1);
             item.setBeverageSize(size);
@@ -287,14 +284,14 @@ public class MenuWindow {
                     if (item.getBeverageSize() != null) {
                         details += " - " + item.getBeverageSize().getLabel();
                     }
-                    details += " - $" + String.format("%.2f", item.getTotalPrice());
+                    details += " - $" + Money.format(item.getTotalPriceCents());
                     setText(details);
                 }
             }
         });
 
         subtotalLabel = new Label("Subtotal: $0.00");
-        taxLabel = new Label("Tax (8%): $0.00");
+        taxLabel = new Label("Tax: $0.00");
         totalLabel = new Label("Total: $0.00");
         totalLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");
 
@@ -312,7 +309,7 @@ public class MenuWindow {
         Button clearCartButton = new Button("Clear Cart");
         clearCartButton.setOnAction(e -> {
             cartItems.clear();
-            currentOrder = new Order("ORD-" + System.currentTimeMillis(), currentUser.getUsername());
+            currentOrder.replaceItems(cartItems);
             updateCartDisplay();
             if (headerInfo != null) {
                 headerInfo.updateCartItems(cartItems);
@@ -338,13 +335,16 @@ public class MenuWindow {
             cartListView.setItems(javafx.collections.FXCollections.observableArrayList(cartItems));
         }
         if (subtotalLabel != null) {
-            subtotalLabel.setText("Subtotal: $" + String.format("%.2f", currentOrder.getSubtotal()));
+            long savings = currentOrder.getDiscountCents();
+            subtotalLabel.setText("Subtotal: $" + Money.format(currentOrder.getSubtotalCents()) +
+                                  (savings > 0 ? "    Savings: -$" + Money.format(savings) : ""));
         }
         if (taxLabel != null) {
-            taxLabel.setText("Tax (8%): $" + String.format("%.2f", currentOrder.getTax()));
+            TaxRule tax = currentOrder.getMenu().getRules().taxRuleFor(currentOrder.getOrderType(), currentOrder.getDeliveryAddress());
+            taxLabel.setText("Tax (" + tax.getRateLabel() + "): $" + Money.format(currentOrder.getTaxCents()));
         }
         if (totalLabel != null) {
-            totalLabel.setText("Total: $" + String.format("%.2f", currentOrder.getTotal()));
+            totalLabel.setText("Total: $" + Money.format(currentOrder.getTotalCents()));
         }
     }
 
@@ -1,7 +1,8 @@
 package com.tmse.pizza.gui;
 
 import com.tmse.pizza.models.*;
-import com.tmse.pizza.storage.FileStorage;
+import com.tmse.pizza.storage.StorageService;
+import com.tmse.pizza.storage.OrderIdGenerator;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -10,7 +11,6 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -91,7 +91,7 @@ public class OrderDisplayWindow {
                 itemDetails += " - Toppings: ";
                 StringBuilder toppingsList = new StringBuilder();
                 for (String toppingId : item.getToppings()) {
-                    Topping topping = MenuData.getToppingById(toppingId);
+                    Topping topping = order.getMenu().getTopping(toppingId);
                     if (topping != null) {
                         if (toppingsList.length() > 0) {
                             toppingsList.append(", ");
@@ -108,7 +108,7 @@ public class OrderDisplayWindow {
             itemLabel.setWrapText(true);
             HBox.setHgrow(itemLabel, Priority.ALWAYS);
 
-            Label priceLabel = new Label("$" + String.format("%.2f", item.getTotalPrice()));
+            Label priceLabel = new Label("$" + Money.format(item.getTotalPriceCents()));
             priceLabel.setStyle("-fx-font-weight: bold;");
 
             itemBox.getChildren().addAll(itemLabel, priceLabel);
@@ -129,14 +129,25 @@ public class OrderDisplayWindow {
         HBox subtotalBox = new HBox();
         subtotalBox.setAlignment(Pos.CENTER_RIGHT);
         Label subtotalLabel = new Label("Subtotal:");
-        Label subtotalValue = new Label("$" + String.format("%.2f", order.getSubtotal()));
+        Label subtotalValue = new Label("$" + Money.format(order.getSubtotalCents()));
         HBox.setHgrow(subtotalLabel, Priority.ALWAYS);
         subtotalBox.getChildren().addAll(subtotalLabel, subtotalValue);
 
+        HBox discountBox = new HBox();
+        discountBox.setAlignment(Pos.CENTER_RIGHT);
+        Label discountLabel = new Label("Savings:");
+        Label discountValue = new Label("-$" + Money.format(order.getDiscountCents()));
+        discountValue.setStyle("-fx-text-fill: #16a34a;");
+        HBox.setHgrow(discountLabel, Priority.ALWAYS);
+        discountBox.getChildren().addAll(discountLabel, discountValue);
+        discountBox.setVisible(order.getDiscountCents() > 0);
+        discountBox.setManaged(order.getDiscountCents() > 0);
+
         HBox taxBox = new HBox();
         taxBox.setAlignment(Pos.CENTER_RIGHT);
-        Label taxLabel = new Label("Tax (8%):");
-        Label taxValue = new Label("$" + String.format("%.2f", order.getTax()));
+        TaxRule tax = order.getMenu().getRules().taxRuleFor(order.getOrderType(), order.getDeliveryAddress());
+        Label taxLabel = new Label("Tax (" + tax.getRateLabel() + "):");
+        Label taxValue = new Label("$" + Money.format(order.getTaxCents()));
         HBox.setHgrow(taxLabel, Priority.ALWAYS);
         taxBox.getChildren().addAll(taxLabel, taxValue);
 
@@ -146,12 +157,12 @@ public class OrderDisplayWindow {
         totalBox.setAlignment(Pos.CENTER_RIGHT);
         Label totalLabel = new Label("Total:");
         totalLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");
-        Label totalValue = new Label("$" + String.format("%.2f", order.getTotal()));
+        Label totalValue = new Label("$" + Money.format(order.getTotalCents()));
         totalValue.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: #dc2626;");
         HBox.setHgrow(totalLabel, Priority.ALWAYS);
         totalBox.getChildren().addAll(totalLabel, totalValue);
 
-        totalsBox.getChildren().addAll(subtotalBox, taxBox, separator3, totalBox);
+        totalsBox.getChildren().addAll(subtotalBox, discountBox, taxBox, separator3, totalBox);
         centerBox.getChildren().add(totalsBox);
 
         HBox buttonBox = new HBox(15);
@@ -161,22 +172,24 @@ public class OrderDisplayWindow {
         Button confirmButton = new Button("Confirm Order");
         confirmButton.setStyle("-fx-background-color: #dc2626; -fx-text-fill: white; -fx-padding: 10 30; -fx-font-size: 14px;");
         confirmButton.setOnAction(e -> {
-            try {
-                // Ensure order status is set to pending
-                order.setStatus("pending");
-                // Ensure order date is set
-                if (order.getOrderDate() == null) {
-                    order.setOrderDate(new java.util.Date());
-                }
-                // Save the order
-                FileStorage.saveOrder(order);
-                
+            // Ensure order status is set to pending
+            order.setStatus("pending");
+            // Ensure order date is set
+            if (order.getOrderDate() == null) {
+                order.setOrderDate(new java.util.Date());
+            }
+            // Save the order in the background; the button shows progress until it lands
+            confirmButton.setDisable(true);
+            confirmButton.setText("Saving...");
+            FxAsync.onFxThread(StorageService.saveOrder(order), done -> {
                 // Clear cart and navigate back to landing page
-                LandingWindow landingWindow = new LandingWindow(stage, new Order("ORD-" + System.currentTimeMillis(), "guest"), new ArrayList<>());
+                LandingWindow landingWindow = new LandingWindow(stage, new Order(OrderIdGenerator.nextOrderId(), "guest"), new ArrayList<>());
                 landingWindow.show();
-            } catch (IOException ex) {
+            }, ex -> {
+                confirmButton.setDisable(false);
+                confirmButton.setText("Confirm Order");
                 showAlert("Error saving order: " + ex.getMessage());
-            }
+            });
         });
 
         Button backButton = new Button("Back");
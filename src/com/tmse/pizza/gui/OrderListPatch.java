@@ -0,0 +1,182 @@
+package com.tmse.pizza.gui;
+
+import com.tmse.pizza.models.Order;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableView;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Brings an order table's rows in line with new data by order id, touching only the rows that
+// were inserted, removed or changed. Unchanged rows keep their Order object, so their cells are
+// not rebuilt, and the table keeps its scroll position and selected order.
+// Rows are found by order id through a RowIndex kept with the table, never by scanning the rows.
+final class OrderListPatch {
+    private static final String ROW_INDEX_KEY = OrderListPatch.class.getName() + ".rowIndex";
+
+    private OrderListPatch() {
+    }
+
+    // orderId -> row position for one table's rows. Any change to the rows drops it and the next
+    // lookup rebuilds it, except replacing a row with the same order, which moves nothing.
+    private static final class RowIndex {
+        final ObservableList<Order> rows;
+        final Map<String, Integer> positions = new HashMap<>();
+        boolean valid;
+
+        RowIndex(ObservableList<Order> rows) {
+            this.rows = rows;
+            rows.addListener((ListChangeListener<Order>) change -> valid = false);
+        }
+
+        int indexOf(String orderId) {
+            if (!valid) {
+                positions.clear();
+                for (int i = 0; i < rows.size(); i++) {
+                    positions.put(rows.get(i).getOrderId(), i);
+                }
+                valid = true;
+            }
+            Integer index = positions.get(orderId);
+            return index != null ? index : -1;
+        }
+
+        void replace(int index, Order order) {
+            boolean wasValid = valid;
+            rows.set(index, order);
+            valid = wasValid;
+        }
+    }
+
+    private static RowIndex rowIndex(TableView<Order> table) {
+        Object index = table.getProperties().get(ROW_INDEX_KEY);
+        if (index instanceof RowIndex && ((RowIndex) index).rows == table.getItems()) {
+            return (RowIndex) index;
+        }
+        RowIndex fresh = new RowIndex(table.getItems());
+        table.getProperties().put(ROW_INDEX_KEY, fresh);
+        return fresh;
+    }
+
+    // Makes the table show exactly the given orders, in the given order
+    static void apply(TableView<Order> table, List<Order> fresh) {
+        preservingSelection(table, () -> diff(table.getItems(), fresh));
+    }
+
+    // Replaces the row with the same order id in place, or appends the order if it is new
+    static void upsert(TableView<Order> table, Order order) {
+        upsert(table, order, null);
+    }
+
+    // As above, but a new order goes before the first row that sorts after it
+    static void upsert(TableView<Order> table, Order order, Comparator<Order> sortOrder) {
+        preservingSelection(table, () -> {
+            ObservableList<Order> rows = table.getItems();
+            RowIndex rowIndex = rowIndex(table);
+            int index = rowIndex.indexOf(order.getOrderId());
+            if (index >= 0) {
+                if (!isUnchanged(rows.get(index), order)) rowIndex.replace(index, order);
+                return;
+            }
+            int at = rows.size();
+            if (sortOrder != null) {
+                for (int i = 0; i < rows.size(); i++) {
+                    if (sortOrder.compare(order, rows.get(i)) < 0) {
+                        at = i;
+                        break;
+                    }
+                }
+            }
+            rows.add(at, order);
+        });
+    }
+
+    // Adds a further page of orders below the rows already shown, skipping any already there
+    static void append(TableView<Order> table, List<Order> page) {
+        ObservableList<Order> rows = table.getItems();
+        Set<String> present = new HashSet<>(rows.size() * 2);
+        for (Order row : rows) {
+            present.add(row.getOrderId());
+        }
+        List<Order> added = new ArrayList<>(page.size());
+        for (Order order : page) {
+            if (present.add(order.getOrderId())) added.add(order);
+        }
+        rows.addAll(added);
+    }
+
+    static void remove(TableView<Order> table, String orderId) {
+        preservingSelection(table, () -> {
+            int index = rowIndex(table).indexOf(orderId);
+            if (index >= 0) {
+                table.getItems().remove(index);
+            }
+        });
+    }
+
+    private static void diff(ObservableList<Order> rows, List<Order> fresh) {
+        Map<String, Order> wanted = new HashMap<>(fresh.size() * 2);
+        for (Order order : fresh) {
+            wanted.put(order.getOrderId(), order);
+        }
+        // Drop rows that are gone, one contiguous run at a time
+        int end = rows.size();
+        while (end > 0) {
+            if (wanted.containsKey(rows.get(end - 1).getOrderId())) {
+                end--;
+                continue;
+            }
+            int start = end - 1;
+            while (start > 0 && !wanted.containsKey(rows.get(start - 1).getOrderId())) start--;
+            rows.remove(start, end);
+            end = start;
+        }
+
+        // Every remaining row is wanted; walk the new order, fixing positions and contents.
+        // A row that moved up is inserted as its fresh copy, and its old row is dropped when the
+        // walk reaches it, so nothing is ever searched for.
+        Set<String> placed = new HashSet<>(fresh.size() * 2);
+        for (int i = 0; i < fresh.size(); i++) {
+            Order order = fresh.get(i);
+            int stale = i;
+            while (stale < rows.size() && placed.contains(rows.get(stale).getOrderId())) stale++;
+            if (stale > i) rows.remove(i, stale);
+            if (i < rows.size() && rows.get(i).getOrderId().equals(order.getOrderId())) {
+                if (!isUnchanged(rows.get(i), order)) {
+                    rows.set(i, order);
+                }
+            } else {
+                rows.add(i, order);
+            }
+            placed.add(order.getOrderId());
+        }
+        // Whatever is left below moved up
+        if (rows.size() > fresh.size()) {
+            rows.remove(fresh.size(), rows.size());
+        }
+    }
+
+    // Storage bumps the version on every save. Windows save edits from a copy of the row, never
+    // the row itself, so a row whose version matches really is the saved order.
+    private static boolean isUnchanged(Order row, Order order) {
+        return row.getVersion() == order.getVersion();
+    }
+
+    private static void preservingSelection(TableView<Order> table, Runnable change) {
+        Order selected = table.getSelectionModel().getSelectedItem();
+        change.run();
+        if (selected == null) return;
+        Order now = table.getSelectionModel().getSelectedItem();
+        if (now != null && now.getOrderId().equals(selected.getOrderId())) return;
+        int index = rowIndex(table).indexOf(selected.getOrderId());
+        if (index >= 0) {
+            table.getSelectionModel().select(index);
+        }
+    }
+}
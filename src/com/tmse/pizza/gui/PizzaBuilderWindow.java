@@ -29,6 +29,8 @@ public class PizzaBuilderWindow {
     private String selectedCheese = "Mozzarella";
     private String selectedSauce = "Tomato Sauce";
     private List<String> selectedToppings = new ArrayList<>();
+    // Priced as the menu's build-your-own pizza; this base is only used if a menu file leaves it out
+    private static final String BUILD_YOUR_OWN_ID = "build-your-own";
     private static final double BASE_PIZZA_PRICE = 7.99;
     private static final int MAX_TOPPINGS = 4;
 
@@ -168,8 +170,8 @@ public class PizzaBuilderWindow {
         List<CheckBox> toppingCheckboxes = new ArrayList<>();
         int col = 0;
         int row = 0;
-        for (Topping topping : MenuData.getToppings()) {
-            CheckBox cb = new CheckBox(topping.getName() + " (+$" + String.format("%.2f", topping.getPrice()) + ")");
+        for (Topping topping : currentOrder.getMenu().getToppings()) {
+            CheckBox cb = new CheckBox(topping.getName() + " (+$" + Money.format(topping.getPriceCents()) + ")");
             cb.setUserData(topping);
             cb.setOnAction(e -> {
                 if (cb.isSelected()) {
@@ -212,12 +214,11 @@ public class PizzaBuilderWindow {
         Button addToCartButton = new Button("Add to Cart");
         addToCartButton.setStyle("-fx-background-color: #dc2626; -fx-text-fill: white; -fx-font-weight: bold; -fx-padding: 12 24;");
         
-        double totalPrice = calculatePrice();
-        priceLabel = new Label("$" + String.format("%.2f", totalPrice));
+        priceLabel = new Label("$" + Money.format(calculatePrice()));
         priceLabel.setStyle("-fx-font-size: 20px; -fx-font-weight: bold; -fx-text-fill: #dc2626;");
 
         addToCartButton.setOnAction(e -> {
-            double price = calculatePrice();
+            long price = calculatePrice();
             OrderItem item = new OrderItem("pizza", "Build Your Own", price, 1);
             item.setPizzaSize(selectedSize);
             item.setCrustType(selectedCrust);
@@ -410,7 +411,7 @@ public class PizzaBuilderWindow {
         pizzaPreviewPane.getChildren().addAll(crust, pizzaBase, cheese);
 
         for (String toppingId : selectedToppings) {
-            Topping topping = MenuData.getToppingById(toppingId);
+            Topping topping = currentOrder.getMenu().getTopping(toppingId);
             if (topping != null) {
                 Random random = new Random(toppingId.hashCode() + System.currentTimeMillis());
                 int count = 6 + random.nextInt(10);
@@ -503,21 +504,17 @@ public class PizzaBuilderWindow {
 
     private void updatePriceLabel() {
         if (priceLabel != null) {
-            double totalPrice = calculatePrice();
-            priceLabel.setText("$" + String.format("%.2f", totalPrice));
+            priceLabel.setText("$" + Money.format(calculatePrice()));
         }
     }
 
-    private double calculatePrice() {
-        double price = BASE_PIZZA_PRICE;
-        price += selectedSize.getPrice();
-        for (String toppingId : selectedToppings) {
-            Topping topping = MenuData.getToppingById(toppingId);
-            if (topping != null) {
-                price += topping.getPrice();
-            }
+    private long calculatePrice() {
+        MenuCatalog menu = currentOrder.getMenu();
+        Pizza base = menu.getPizza(BUILD_YOUR_OWN_ID);
+        if (base == null) {
+            base = new Pizza(BUILD_YOUR_OWN_ID, "Build Your Own", "", BASE_PIZZA_PRICE, null);
         }
-        return price;
+        return menu.getPricing().pizzaCents(base, selectedSize, selectedCrust, selectedToppings);
     }
 
     private void animatePulse(Label label) {
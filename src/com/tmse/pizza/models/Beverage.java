@@ -5,32 +5,33 @@ public class Beverage {
     private String id;
     private String name;
     private String description;
-    private double smallPrice;
-    private double mediumPrice;
-    private double largePrice;
+    private long smallCents;
+    private long mediumCents;
+    private long largeCents;
 
     public Beverage(String id, String name, String description, double smallPrice, double mediumPrice, double largePrice) {
         this.id = id;
         this.name = name;
         this.description = description;
-        this.smallPrice = smallPrice;
-        this.mediumPrice = mediumPrice;
-        this.largePrice = largePrice;
+        this.smallCents = Money.cents(smallPrice);
+        this.mediumCents = Money.cents(mediumPrice);
+        this.largeCents = Money.cents(largePrice);
     }
 
     public String getId() { return id; }
     public String getName() { return name; }
     public String getDescription() { return description; }
-    public double getPrice(BeverageSize size) {
+    public double getPrice(BeverageSize size) { return Money.dollars(getPriceCents(size)); }
+    public long getPriceCents(BeverageSize size) {
         switch (size) {
             case SMALL:
-                return smallPrice;
+                return smallCents;
             case MEDIUM:
-                return mediumPrice;
+                return mediumCents;
             case LARGE:
-                return largePrice;
+                return largeCents;
             default:
-                return smallPrice;
+                return smallCents;
         }
     }
 }
@@ -0,0 +1,45 @@
+package com.tmse.pizza.models;
+
+import java.util.List;
+
+// The rule engine's answer for one cart: subtotal, discounts, tax and total in cents, and which
+// combos, coupon and tax jurisdiction they came from
+public final class CartQuote {
+    public enum CouponStatus { NONE, APPLIED, UNKNOWN, BELOW_MINIMUM }
+
+    private final long subtotalCents;
+    private final long comboDiscountCents;
+    private final long couponDiscountCents;
+    private final long taxCents;
+    private final List<String> appliedCombos;
+    private final Coupon coupon;
+    private final CouponStatus couponStatus;
+    private final TaxRule taxRule;
+
+    CartQuote(long subtotalCents, long comboDiscountCents, long couponDiscountCents, long taxCents,
+              List<String> appliedCombos, Coupon coupon, CouponStatus couponStatus, TaxRule taxRule) {
+        this.subtotalCents = subtotalCents;
+        this.comboDiscountCents = comboDiscountCents;
+        this.couponDiscountCents = couponDiscountCents;
+        this.taxCents = taxCents;
+        this.appliedCombos = appliedCombos;
+        this.coupon = coupon;
+        this.couponStatus = couponStatus;
+        this.taxRule = taxRule;
+    }
+
+    public long getSubtotalCents() { return subtotalCents; }
+    public long getComboDiscountCents() { return comboDiscountCents; }
+    public long getCouponDiscountCents() { return couponDiscountCents; }
+    public long getDiscountCents() { return comboDiscountCents + couponDiscountCents; }
+    public long getTaxCents() { return taxCents; }
+    public long getTotalCents() { return subtotalCents - getDiscountCents() + taxCents; }
+    // Combo names, once per time the combo was applied
+    public List<String> getAppliedCombos() { return appliedCombos; }
+    // The coupon the code named, or null if there was no code or it is not on the menu
+    public Coupon getCoupon() { return coupon; }
+    public CouponStatus getCouponStatus() { return couponStatus; }
+    public TaxRule getTaxRule() { return taxRule; }
+    // "Tax (8%)"
+    public String getTaxLabel() { return "Tax (" + taxRule.getRateLabel() + ")"; }
+}
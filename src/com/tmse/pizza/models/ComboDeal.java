@@ -0,0 +1,25 @@
+package com.tmse.pizza.models;
+
+import java.util.List;
+
+// A discount for buying items together. Each entry in items is "pizza", "beverage", or the id of
+// a menu pizza or beverage; list an entry twice to need two of it. A cart gets the discount once
+// for every complete set it contains.
+public class ComboDeal {
+    private String id;
+    private String name;
+    private List<String> items;
+    private long discountCents;
+
+    public ComboDeal(String id, String name, List<String> items, double discount) {
+        this.id = id;
+        this.name = name;
+        this.items = items != null ? List.copyOf(items) : List.of();
+        this.discountCents = Money.cents(discount);
+    }
+
+    public String getId() { return id; }
+    public String getName() { return name; }
+    public List<String> getItems() { return items; }
+    public long getDiscountCents() { return discountCents; }
+}
@@ -0,0 +1,26 @@
+package com.tmse.pizza.models;
+
+// A coupon code worth either a percentage or a fixed amount off, once the subtotal reaches the
+// minimum. Codes are matched ignoring case.
+public class Coupon {
+    private String code;
+    private String description;
+    private long percentOffBasisPoints; // hundredths of a percent
+    private long amountOffCents;
+    private long minimumSubtotalCents;
+
+    public Coupon(String code, String description, double percentOff, double amountOff, double minimumSubtotal) {
+        this.code = code;
+        this.description = description;
+        this.percentOffBasisPoints = Math.round(percentOff * 100);
+        this.amountOffCents = Money.cents(amountOff);
+        this.minimumSubtotalCents = Money.cents(minimumSubtotal);
+    }
+
+    public String getCode() { return code; }
+    public String getDescription() { return description; }
+    public long getPercentOffBasisPoints() { return percentOffBasisPoints; }
+    public long getAmountOffCents() { return amountOffCents; }
+    public long getMinimumSubtotalCents() { return minimumSubtotalCents; }
+    public boolean isPercentOff() { return percentOffBasisPoints > 0; }
+}
@@ -0,0 +1,119 @@
+package com.tmse.pizza.models;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// An immutable, compiled menu. Each topping, pizza and beverage gets a dense int id (its position
+// in the menu) and is found by string id with one hash lookup. The lists handed out are shared,
+// unmodifiable views, so reading the menu never copies it.
+// The version identifies the menu a price came from; a newer menu file carries a higher one.
+// Tax, combo and coupon rules travel with the menu and are compiled with it, so a menu reload
+// swaps prices and promotions together.
+public final class MenuCatalog {
+    private final long version;
+    private final List<Topping> toppings;
+    private final List<Pizza> pizzas;
+    private final List<Beverage> beverages;
+    private final List<TaxRule> taxRules;
+    private final List<ComboDeal> comboDeals;
+    private final List<Coupon> coupons;
+    // string id -> dense int id
+    private final Map<String, Integer> toppingIndex;
+    private final Map<String, Integer> pizzaIndex;
+    private final Map<String, Integer> beverageIndex;
+    private final PricingEngine pricing;
+    private final RuleEngine rules;
+
+    private MenuCatalog(long version, List<Topping> toppings, List<Pizza> pizzas, List<Beverage> beverages,
+                        List<TaxRule> taxRules, List<ComboDeal> comboDeals, List<Coupon> coupons) {
+        this.version = version;
+        this.toppings = Collections.unmodifiableList(List.copyOf(toppings));
+        this.pizzas = Collections.unmodifiableList(List.copyOf(pizzas));
+        this.beverages = Collections.unmodifiableList(List.copyOf(beverages));
+        this.taxRules = Collections.unmodifiableList(List.copyOf(taxRules));
+        this.comboDeals = Collections.unmodifiableList(List.copyOf(comboDeals));
+        this.coupons = Collections.unmodifiableList(List.copyOf(coupons));
+        this.toppingIndex = index(this.toppings, Topping::getId, "topping");
+        this.pizzaIndex = index(this.pizzas, Pizza::getId, "pizza");
+        this.beverageIndex = index(this.beverages, Beverage::getId, "beverage");
+        // Pricing keeps a topping selection in one long, one bit per topping
+        if (this.toppings.size() > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " toppings are supported");
+        }
+        for (Pizza pizza : this.pizzas) {
+            for (String toppingId : pizza.getDefaultToppings()) {
+                if (!toppingIndex.containsKey(toppingId)) {
+                    throw new IllegalArgumentException("Pizza " + pizza.getId() + " has unknown topping " + toppingId);
+                }
+            }
+        }
+        this.pricing = new PricingEngine(this);
+        this.rules = new RuleEngine(this);
+    }
+
+    // Fails with IllegalArgumentException on duplicate ids, a pizza naming an unknown topping,
+    // more than 64 toppings, or rules the RuleEngine cannot compile
+    public static MenuCatalog of(long version, List<Topping> toppings, List<Pizza> pizzas, List<Beverage> beverages,
+                                 List<TaxRule> taxRules, List<ComboDeal> comboDeals, List<Coupon> coupons) {
+        return new MenuCatalog(version, toppings, pizzas, beverages, taxRules, comboDeals, coupons);
+    }
+
+    public long getVersion() { return version; }
+    // Prices for this menu's items
+    public PricingEngine getPricing() { return pricing; }
+    // Tax, combos and coupons for this menu
+    public RuleEngine getRules() { return rules; }
+
+    public List<Topping> getToppings() { return toppings; }
+    public List<Pizza> getPizzas() { return pizzas; }
+    public List<Beverage> getBeverages() { return beverages; }
+    public List<TaxRule> getTaxRules() { return taxRules; }
+    public List<ComboDeal> getComboDeals() { return comboDeals; }
+    public List<Coupon> getCoupons() { return coupons; }
+
+    public Topping getTopping(String id) {
+        int index = toppingIndex(id);
+        return index >= 0 ? toppings.get(index) : null;
+    }
+
+    public Pizza getPizza(String id) {
+        Integer index = id != null ? pizzaIndex.get(id) : null;
+        return index != null ? pizzas.get(index) : null;
+    }
+
+    public Beverage getBeverage(String id) {
+        Integer index = id != null ? beverageIndex.get(id) : null;
+        return index != null ? beverages.get(index) : null;
+    }
+
+    // Dense id of a topping, 0 to getToppingCount() - 1, or -1 if it is not on the menu
+    public int toppingIndex(String id) {
+        Integer index = id != null ? toppingIndex.get(id) : null;
+        return index != null ? index : -1;
+    }
+
+    public Topping getTopping(int index) {
+        return toppings.get(index);
+    }
+
+    public int getToppingCount() {
+        return toppings.size();
+    }
+
+    private interface IdOf<T> {
+        String idOf(T item);
+    }
+
+    private static <T> Map<String, Integer> index(List<T> items, IdOf<T> idOf, String kind) {
+        Map<String, Integer> index = new HashMap<>(items.size() * 2);
+        for (int i = 0; i < items.size(); i++) {
+            String id = idOf.idOf(items.get(i));
+            if (index.putIfAbsent(id, i) != null) {
+                throw new IllegalArgumentException("Duplicate " + kind + " id " + id);
+            }
+        }
+        return Collections.unmodifiableMap(index);
+    }
+}
@@ -4,20 +4,17 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
-// Menu data initialization and management
+// Menu data initialization and management; lookups are answered by the compiled MenuCatalog.
+// The built-in menu (version 0) is used until the menu file in the data directory is installed.
+// Installing swaps the whole catalog in one volatile write, so lookups never lock and never see
+// half of one menu and half of another.
 public class MenuData {
-    private static List<Topping> toppings;
-    private static List<Pizza> pizzas;
-    private static List<Beverage> beverages;
+    private static final MenuCatalog builtIn = MenuCatalog.of(0, defaultToppings(), defaultPizzas(), defaultBeverages(),
+                                                                     defaultTaxRules(), defaultComboDeals(), defaultCoupons());
+    private static volatile MenuCatalog catalog = builtIn;
 
-    static {
-        initializeToppings();
-        initializePizzas();
-        initializeBeverages();
-    }
-
-    private static void initializeToppings() {
-        toppings = Arrays.asList(
+    private static List<Topping> defaultToppings() {
+        return Arrays.asList(
             new Topping("pepperoni", "Pepperoni", 1.50),
             new Topping("sausage", "Italian Sausage", 1.50),
             new Topping("mushrooms", "Fresh Mushrooms", 1.25),
@@ -30,8 +27,8 @@ public class MenuData {
         );
     }
 
-    private static void initializePizzas() {
-        pizzas = Arrays.asList(
+    private static List<Pizza> defaultPizzas() {
+        return Arrays.asList(
             new Pizza("cowabunga-classic", "Cowabunga Classic",
                 "The ultimate TMSE classic with crispy pepperoni and melty mozzarella",
                 8.99, Arrays.asList("pepperoni")),
@@ -53,8 +50,8 @@ public class MenuData {
         );
     }
 
-    private static void initializeBeverages() {
-        beverages = Arrays.asList(
+    private static List<Beverage> defaultBeverages() {
+        return Arrays.asList(
             new Beverage("mutant-ooze", "Mutant Ooze",
                 "A glowing green concoction of lime soda, pineapple juice, and a splash of coconut",
                 1.99, 2.49, 2.99),
@@ -73,20 +70,46 @@ public class MenuData {
         );
     }
 
-    public static List<Topping> getToppings() { return new ArrayList<>(toppings); }
-    public static List<Pizza> getPizzas() { return new ArrayList<>(pizzas); }
-    public static List<Beverage> getBeverages() { return new ArrayList<>(beverages); }
+    private static List<TaxRule> defaultTaxRules() {
+        return Arrays.asList(
+            new TaxRule("store", "Sales Tax", 8.0, new ArrayList<>())
+        );
+    }
+
+    private static List<ComboDeal> defaultComboDeals() {
+        return Arrays.asList(
+            new ComboDeal("pizza-and-drink", "Pizza + Drink Combo", Arrays.asList("pizza", "beverage"), 1.50)
+        );
+    }
+
+    private static List<Coupon> defaultCoupons() {
+        return Arrays.asList(
+            new Coupon("COWABUNGA10", "10% off orders of $20 or more", 10, 0, 20.00)
+        );
+    }
+
+    public static MenuCatalog getCatalog() { return catalog; }
+    public static MenuCatalog getBuiltInCatalog() { return builtIn; }
+
+    // New orders and lookups see this catalog from now on; orders already started keep theirs
+    public static void install(MenuCatalog menu) {
+        catalog = menu;
+    }
+
+    // Shared, unmodifiable views
+    public static List<Topping> getToppings() { return catalog.getToppings(); }
+    public static List<Pizza> getPizzas() { return catalog.getPizzas(); }
+    public static List<Beverage> getBeverages() { return catalog.getBeverages(); }
 
     public static Topping getToppingById(String id) {
-        return toppings.stream().filter(t -> t.getId().equals(id)).findFirst().orElse(null);
+        return catalog.getTopping(id);
     }
 
     public static Pizza getPizzaById(String id) {
-        return pizzas.stream().filter(p -> p.getId().equals(id)).findFirst().orElse(null);
+        return catalog.getPizza(id);
     }
 
     public static Beverage getBeverageById(String id) {
-        return beverages.stream().filter(b -> b.getId().equals(id)).findFirst().orElse(null);
+        return catalog.getBeverage(id);
     }
 }
-
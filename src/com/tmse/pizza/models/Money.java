@@ -0,0 +1,94 @@
+package com.tmse.pizza.models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Money is a primitive long count of cents everywhere prices are stored, summed or compared,
+// so totals are exact no matter how many orders are added up. Doubles only appear at the edges:
+// menu literals going in and dollar amounts shown on screen.
+public final class Money {
+    private Money() {
+    }
+
+    // Nearest cent, for amounts that arrive as doubles (menu literals)
+    public static long cents(double dollars) {
+        return Math.round(dollars * 100);
+    }
+
+    public static double dollars(long cents) {
+        return cents / 100.0;
+    }
+
+    // "12.34", "-0.05"; what the data files store
+    public static String format(long cents) {
+        return append(new StringBuilder(12), cents).toString();
+    }
+
+    // As format, written straight into a record being built
+    public static StringBuilder append(StringBuilder sb, long cents) {
+        if (cents < 0) {
+            sb.append('-');
+            cents = -cents;
+        }
+        long fraction = cents % 100;
+        sb.append(cents / 100).append('.');
+        if (fraction < 10) sb.append('0');
+        return sb.append(fraction);
+    }
+
+    public static long parse(String text) {
+        String trimmed = text.trim();
+        return parse(trimmed.toCharArray(), 0, trimmed.length());
+    }
+
+    // Parses a decimal such as "12.49", "12.5" or "12" exactly, rounding any digits past the cent
+    // half up. That also reads the doubles older files stored ("21.599999999999998" is 2160 cents).
+    // Exponent forms fall back to BigDecimal. Throws NumberFormatException for anything else.
+    public static long parse(char[] chars, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        long whole = 0;
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        boolean inFraction = false;
+        boolean sawDigit = false;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                sawDigit = true;
+                if (!inFraction) {
+                    if (whole > (Long.MAX_VALUE / 100 - 9) / 10) return parseSlow(chars, start, end);
+                    whole = whole * 10 + (c - '0');
+                } else if (fractionDigits < 2) {
+                    fraction = fraction * 10 + (c - '0');
+                    fractionDigits++;
+                } else if (fractionDigits == 2) {
+                    roundUp = c >= '5';
+                    fractionDigits++;
+                }
+            } else if (c == '.' && !inFraction) {
+                inFraction = true;
+            } else {
+                return parseSlow(chars, start, end);
+            }
+        }
+        if (!sawDigit) throw new NumberFormatException("Not an amount: " + new String(chars, start, end - start));
+        if (fractionDigits == 1) fraction *= 10;
+        long cents = whole * 100 + fraction + (roundUp ? 1 : 0);
+        return negative ? -cents : cents;
+    }
+
+    private static long parseSlow(char[] chars, int start, int end) {
+        String text = new String(chars, start, end - start);
+        try {
+            return new BigDecimal(text).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+    }
+}
@@ -9,23 +9,28 @@ public class Order {
     private String orderID;
     private String customerID;
     private String customerName;
-    private Date orderDate;
-    private double totalAmount;
+    private long orderTimeMillis = -1; // epoch millis, -1 when unset
+    private Date orderDate; // decoded lazily from orderTimeMillis
     private String status;
     private List<OrderItem> items;
-    private double subtotal;
-    private double tax;
+    private long subtotalCents;
+    private long taxCents;
+    private long totalCents;
     private String orderType; // "delivery" or "pickup"
     private String deliveryAddress;
     private String assignedDriverId;
     private String assignedDriverName;
     private String paymentMethod;
     private String specialInstructions;
+    private String couponCode;
+    private long version; // bumped by storage on every save, 0 until first saved
+    private MenuCatalog menu; // the menu this order was started with, so its prices hold across menu reloads
 
     public Order() {
         this.items = new ArrayList<>();
-        this.orderDate = new Date();
+        this.orderTimeMillis = System.currentTimeMillis();
         this.status = "pending";
+        this.menu = MenuData.getCatalog();
     }
 
     public Order(String orderID, String customerID) {
@@ -34,8 +39,29 @@ public class Order {
         this.customerID = customerID;
     }
 
+    public Order copy() {
+        Order copy = new Order(orderID, customerID);
+        copy.customerName = customerName;
+        copy.orderTimeMillis = orderTimeMillis;
+        copy.status = status;
+        copy.items = items != null ? new ArrayList<>(items) : new ArrayList<>();
+        copy.subtotalCents = subtotalCents;
+        copy.taxCents = taxCents;
+        copy.totalCents = totalCents;
+        copy.orderType = orderType;
+        copy.deliveryAddress = deliveryAddress;
+        copy.assignedDriverId = assignedDriverId;
+        copy.assignedDriverName = assignedDriverName;
+        copy.paymentMethod = paymentMethod;
+        copy.specialInstructions = specialInstructions;
+        copy.couponCode = couponCode;
+        copy.version = version;
+        copy.menu = menu;
+        return copy;
+    }
+
     public void addItem(MenuItem item) {
-        OrderItem orderItem = new OrderItem("pizza", item.getName(), item.getPrice(), 1);
+        OrderItem orderItem = new OrderItem("pizza", item.getName(), Money.cents(item.getPrice()), 1);
         items.add(orderItem);
         calculateTotals();
     }
@@ -45,6 +71,14 @@ public class Order {
         calculateTotals();
     }
 
+    // Swaps the cart's contents in place so the order keeps its id, coupon and the menu it was priced from
+    public void replaceItems(List<OrderItem> newItems) {
+        List<OrderItem> replacement = new ArrayList<>(newItems);
+        items.clear();
+        items.addAll(replacement);
+        calculateTotals();
+    }
+
     public void removeItem(OrderItem item) {
         items.remove(item);
         calculateTotals();
@@ -53,7 +87,7 @@ public class Order {
     public void updateQuantity(String itemID, int qty) {
         for (OrderItem item : items) {
             if (item.getName().equals(itemID)) {
-                item = new OrderItem(item.getType(), item.getName(), item.getUnitPrice(), qty);
+                item = new OrderItem(item.getType(), item.getName(), item.getUnitPriceCents(), qty);
                 break;
             }
         }
@@ -73,10 +107,17 @@ public class Order {
         this.status = status;
     }
 
+    // Combos, the coupon and the delivery address's tax all apply; changing any of them reprices the cart
     private void calculateTotals() {
-        subtotal = items.stream().mapToDouble(OrderItem::getTotalPrice).sum();
-        tax = subtotal * 0.08;
-        totalAmount = subtotal + tax;
+        CartQuote quote = menu.getRules().quote(items, orderType, deliveryAddress, couponCode);
+        subtotalCents = quote.getSubtotalCents();
+        taxCents = quote.getTaxCents();
+        totalCents = quote.getTotalCents();
+    }
+
+    // Orders without items keep whatever totals were set on them (e.g. read from the order file)
+    private void repriceCart() {
+        if (items != null && !items.isEmpty()) calculateTotals();
     }
 
     public String getOrderID() { return orderID; }
@@ -85,25 +126,52 @@ public class Order {
     public String getCustomerID() { return customerID; }
     public void setCustomerID(String customerID) { this.customerID = customerID; }
     public String getUsername() { return customerID; }
-    public Date getOrderDate() { return orderDate; }
-    public void setOrderDate(Date orderDate) { this.orderDate = orderDate; }
-    public double getTotalAmount() { return totalAmount; }
-    public void setTotalAmount(double totalAmount) { this.totalAmount = totalAmount; }
+    public Date getOrderDate() {
+        if (orderDate == null && orderTimeMillis >= 0) {
+            orderDate = new Date(orderTimeMillis);
+        }
+        return orderDate;
+    }
+    public void setOrderDate(Date orderDate) {
+        this.orderDate = orderDate;
+        this.orderTimeMillis = orderDate != null ? orderDate.getTime() : -1;
+    }
+    public long getOrderTimeMillis() { return orderTimeMillis; }
+    public void setOrderTimeMillis(long orderTimeMillis) {
+        this.orderTimeMillis = orderTimeMillis;
+        this.orderDate = null;
+    }
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
+    // The status as an enum, or null if it is not one we know
+    public OrderStatus getOrderStatus() { return OrderStatus.fromCode(status); }
     public List<OrderItem> getItems() { return items; }
     public void setItems(List<OrderItem> items) { this.items = items; }
-    public double getSubtotal() { return subtotal; }
-    public void setSubtotal(double subtotal) { this.subtotal = subtotal; }
-    public double getTax() { return tax; }
-    public void setTax(double tax) { this.tax = tax; }
-    public double getTotal() { return totalAmount; }
+    public long getSubtotalCents() { return subtotalCents; }
+    public void setSubtotalCents(long subtotalCents) { this.subtotalCents = subtotalCents; }
+    public long getTaxCents() { return taxCents; }
+    public void setTaxCents(long taxCents) { this.taxCents = taxCents; }
+    public long getTotalCents() { return totalCents; }
+    public void setTotalCents(long totalCents) { this.totalCents = totalCents; }
+    // Combo and coupon savings, which is whatever the total falls short of subtotal plus tax
+    public long getDiscountCents() { return subtotalCents + taxCents - totalCents; }
+    // Dollars, for display only; anything that adds amounts up uses the cents
+    public double getSubtotal() { return Money.dollars(subtotalCents); }
+    public double getTax() { return Money.dollars(taxCents); }
+    public double getTotal() { return Money.dollars(totalCents); }
+    public double getTotalAmount() { return Money.dollars(totalCents); }
     public String getCustomerName() { return customerName; }
     public void setCustomerName(String customerName) { this.customerName = customerName; }
     public String getOrderType() { return orderType; }
-    public void setOrderType(String orderType) { this.orderType = orderType; }
+    public void setOrderType(String orderType) {
+        this.orderType = orderType;
+        repriceCart();
+    }
     public String getDeliveryAddress() { return deliveryAddress; }
-    public void setDeliveryAddress(String deliveryAddress) { this.deliveryAddress = deliveryAddress; }
+    public void setDeliveryAddress(String deliveryAddress) {
+        this.deliveryAddress = deliveryAddress;
+        repriceCart();
+    }
     public String getAssignedDriverId() { return assignedDriverId; }
     public void setAssignedDriverId(String assignedDriverId) { this.assignedDriverId = assignedDriverId; }
     public String getAssignedDriverName() { return assignedDriverName; }
@@ -112,5 +180,12 @@ public class Order {
     public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
     public String getSpecialInstructions() { return specialInstructions; }
     public void setSpecialInstructions(String specialInstructions) { this.specialInstructions = specialInstructions; }
+    public String getCouponCode() { return couponCode; }
+    public void setCouponCode(String couponCode) {
+        this.couponCode = couponCode;
+        repriceCart();
+    }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    public MenuCatalog getMenu() { return menu; }
 }
-
@@ -14,15 +14,15 @@ public class OrderItem {
     private String cheeseType;
     private String sauceType;
     private int quantity;
-    private double unitPrice;
-    private double totalPrice;
+    private long unitPriceCents;
+    private long totalPriceCents;
 
-    public OrderItem(String type, String name, double unitPrice, int quantity) {
+    public OrderItem(String type, String name, long unitPriceCents, int quantity) {
         this.type = type;
         this.name = name;
-        this.unitPrice = unitPrice;
+        this.unitPriceCents = unitPriceCents;
         this.quantity = quantity;
-        this.totalPrice = unitPrice * quantity;
+        this.totalPriceCents = unitPriceCents * quantity;
     }
 
     public String getType() { return type; }
@@ -42,7 +42,10 @@ public class OrderItem {
     public String getSauceType() { return sauceType; }
     public void setSauceType(String sauceType) { this.sauceType = sauceType; }
     public int getQuantity() { return quantity; }
-    public double getUnitPrice() { return unitPrice; }
-    public double getTotalPrice() { return totalPrice; }
+    public long getUnitPriceCents() { return unitPriceCents; }
+    public long getTotalPriceCents() { return totalPriceCents; }
+    // Dollars, for display only
+    public double getUnitPrice() { return Money.dollars(unitPriceCents); }
+    public double getTotalPrice() { return Money.dollars(totalPriceCents); }
 }
 
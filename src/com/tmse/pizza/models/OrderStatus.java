@@ -0,0 +1,43 @@
+package com.tmse.pizza.models;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Order status enumeration; the code is what the order file stores and the windows compare against
+public enum OrderStatus {
+    PENDING("pending", "Pending"),
+    PREPARING("preparing", "Preparing"),
+    READY("ready", "Ready"),
+    OUT_FOR_DELIVERY("out-for-delivery", "Out for Delivery"),
+    DELIVERED("delivered", "Delivered"),
+    CANCELLED("cancelled", "Cancelled");
+
+    private static final Map<String, OrderStatus> byCode = new HashMap<>();
+
+    static {
+        for (OrderStatus status : values()) {
+            byCode.put(status.code, status);
+        }
+    }
+
+    private final String code;
+    private final String label;
+
+    OrderStatus(String code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public String getCode() { return code; }
+    public String getLabel() { return label; }
+
+    // Accepts any case and spaces or underscores for hyphens ("Pending", "OUT_FOR_DELIVERY");
+    // null when the text is not a known status
+    public static OrderStatus fromCode(String text) {
+        if (text == null) return null;
+        OrderStatus status = byCode.get(text);
+        if (status != null) return status;
+        return byCode.get(text.trim().toLowerCase(Locale.ROOT).replace(' ', '-').replace('_', '-'));
+    }
+}
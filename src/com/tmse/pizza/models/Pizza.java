@@ -1,6 +1,5 @@
 package com.tmse.pizza.models;
 
-import java.util.ArrayList;
 import java.util.List;
 
 // Represents a pizza item
@@ -8,21 +7,23 @@ public class Pizza {
     private String id;
     private String name;
     private String description;
-    private double basePrice;
+    private long basePriceCents;
     private List<String> defaultToppings;
 
     public Pizza(String id, String name, String description, double basePrice, List<String> defaultToppings) {
         this.id = id;
         this.name = name;
         this.description = description;
-        this.basePrice = basePrice;
-        this.defaultToppings = defaultToppings != null ? defaultToppings : new ArrayList<>();
+        this.basePriceCents = Money.cents(basePrice);
+        // Immutable, since menu pizzas are shared by every window and order item
+        this.defaultToppings = defaultToppings != null ? List.copyOf(defaultToppings) : List.of();
     }
 
     public String getId() { return id; }
     public String getName() { return name; }
     public String getDescription() { return description; }
-    public double getBasePrice() { return basePrice; }
+    public double getBasePrice() { return Money.dollars(basePriceCents); }
+    public long getBasePriceCents() { return basePriceCents; }
     public List<String> getDefaultToppings() { return defaultToppings; }
 }
 
@@ -8,14 +8,15 @@ public enum PizzaSize {
     LARGE("Large (16\")", 6.0);
 
     private final String label;
-    private final double price;
+    private final long priceCents;
 
     PizzaSize(String label, double price) {
         this.label = label;
-        this.price = price;
+        this.priceCents = Money.cents(price);
     }
 
     public String getLabel() { return label; }
-    public double getPrice() { return price; }
+    public double getPrice() { return Money.dollars(priceCents); }
+    public long getPriceCents() { return priceCents; }
 }
 
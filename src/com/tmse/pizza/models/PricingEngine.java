@@ -0,0 +1,65 @@
+package com.tmse.pizza.models;
+
+import java.util.Collection;
+
+// The one place prices are worked out, for one menu catalog. All arithmetic is in whole cents:
+// menu prices are held in cents by the models, and line prices are sums of those.
+// Toppings are passed as a bitset over the catalog's dense topping ids, so a price is a few array
+// reads and one add per topping; that is cheaper than any cache lookup, so nothing is cached.
+public final class PricingEngine {
+    private final MenuCatalog menu;
+    private final long[] toppingCents;
+    private final long[] pizzaSizeCents = new long[PizzaSize.values().length];
+
+    PricingEngine(MenuCatalog menu) {
+        this.menu = menu;
+        this.toppingCents = new long[menu.getToppingCount()];
+        for (int i = 0; i < toppingCents.length; i++) {
+            toppingCents[i] = menu.getTopping(i).getPriceCents();
+        }
+        for (PizzaSize size : PizzaSize.values()) {
+            pizzaSizeCents[size.ordinal()] = size.getPriceCents();
+        }
+    }
+
+    // Bit i is set for the topping with dense id i; toppings not on this menu are left out
+    public long toppingBits(Collection<String> toppingIds) {
+        long bits = 0;
+        if (toppingIds == null) return bits;
+        for (String id : toppingIds) {
+            int index = menu.toppingIndex(id);
+            if (index >= 0) bits |= 1L << index;
+        }
+        return bits;
+    }
+
+    public long toppingsCents(long toppingBits) {
+        long total = 0;
+        for (long bits = toppingBits; bits != 0; bits &= bits - 1) {
+            total += toppingCents[Long.numberOfTrailingZeros(bits)];
+        }
+        return total;
+    }
+
+    // Base price plus size plus toppings. Crust is taken so crust surcharges can be added without
+    // touching callers; none of today's crusts cost extra.
+    public long pizzaCents(Pizza pizza, PizzaSize size, CrustType crust, long toppingBits) {
+        return pizza.getBasePriceCents() + pizzaSizeCents[size.ordinal()] + toppingsCents(toppingBits);
+    }
+
+    public long pizzaCents(Pizza pizza, PizzaSize size, CrustType crust, Collection<String> toppingIds) {
+        return pizzaCents(pizza, size, crust, toppingBits(toppingIds));
+    }
+
+    public long beverageCents(Beverage beverage, BeverageSize size) {
+        return beverage.getPriceCents(size);
+    }
+
+    public long subtotalCents(Collection<OrderItem> items) {
+        long total = 0;
+        for (OrderItem item : items) {
+            total += item.getTotalPriceCents();
+        }
+        return total;
+    }
+}
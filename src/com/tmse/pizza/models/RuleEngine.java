@@ -0,0 +1,271 @@
+package com.tmse.pizza.models;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Tax, combo and coupon rules for one menu catalog, compiled when the catalog is built so a cart
+// can be quoted on every change. Each distinct combo entry ("pizza", or a named item) becomes a
+// slot bit; a cart line's slots are two hash lookups (its type and its name), and combos are
+// matched against those bitmasks, biggest discount first. Coupons are found by upper-cased code
+// and delivery tax by the longest matching postal code prefix.
+//
+// Discounts come off the subtotal before tax; combos first, then the coupon.
+public final class RuleEngine {
+    private static final int POSTAL_CODE_LENGTH = 5;
+
+    private final PricingEngine pricing;
+    private final TaxRule storeTax;
+    private final Map<String, TaxRule> taxByPrefix = new HashMap<>();
+    private final Map<String, Coupon> couponByCode = new HashMap<>();
+    // slot bits for an item's type and for its name
+    private final Map<String, Long> typeSlots = new HashMap<>();
+    private final Map<String, Long> nameSlots = new HashMap<>();
+    private final List<CompiledCombo> combos = new ArrayList<>();
+
+    private static final class CompiledCombo {
+        final String name;
+        final long discountCents;
+        final int[] slots; // named items before whole types, so "any pizza" doesn't take the specific one
+
+        CompiledCombo(String name, long discountCents, int[] slots) {
+            this.name = name;
+            this.discountCents = discountCents;
+            this.slots = slots;
+        }
+    }
+
+    RuleEngine(MenuCatalog menu) {
+        this.pricing = menu.getPricing();
+
+        TaxRule store = null;
+        Map<String, TaxRule> byId = new HashMap<>();
+        for (TaxRule rule : menu.getTaxRules()) {
+            if (byId.putIfAbsent(rule.getId(), rule) != null) {
+                throw new IllegalArgumentException("Duplicate tax id " + rule.getId());
+            }
+            if (rule.getRateBasisPoints() < 0) {
+                throw new IllegalArgumentException("Tax " + rule.getId() + " has a negative rate");
+            }
+            if (rule.getPostalPrefixes().isEmpty()) {
+                if (store != null) {
+                    throw new IllegalArgumentException("Taxes " + store.getId() + " and " + rule.getId() + " both have no postal prefixes");
+                }
+                store = rule;
+            }
+            for (String prefix : rule.getPostalPrefixes()) {
+                if (prefix.isEmpty() || prefix.length() > POSTAL_CODE_LENGTH || !isDigits(prefix)) {
+                    throw new IllegalArgumentException("Tax " + rule.getId() + " has bad postal prefix '" + prefix + "'");
+                }
+                TaxRule previous = taxByPrefix.putIfAbsent(prefix, rule);
+                if (previous != null) {
+                    throw new IllegalArgumentException("Postal prefix " + prefix + " is in both " + previous.getId() + " and " + rule.getId());
+                }
+            }
+        }
+        if (store == null) {
+            throw new IllegalArgumentException("One tax needs no postal prefixes, for pickup and other addresses");
+        }
+        this.storeTax = store;
+
+        for (Coupon coupon : menu.getCoupons()) {
+            if ((coupon.getPercentOffBasisPoints() > 0) == (coupon.getAmountOffCents() > 0)
+                    || coupon.getPercentOffBasisPoints() < 0 || coupon.getAmountOffCents() < 0
+                    || coupon.getPercentOffBasisPoints() > 10000 || coupon.getMinimumSubtotalCents() < 0) {
+                throw new IllegalArgumentException("Coupon " + coupon.getCode() + " needs either a percentage up to 100 or an amount off");
+            }
+            if (couponByCode.putIfAbsent(codeKey(coupon.getCode()), coupon) != null) {
+                throw new IllegalArgumentException("Duplicate coupon code " + coupon.getCode());
+            }
+        }
+
+        Map<String, Integer> slotOf = new HashMap<>();
+        Map<String, ComboDeal> comboIds = new HashMap<>();
+        for (ComboDeal combo : menu.getComboDeals()) {
+            if (comboIds.putIfAbsent(combo.getId(), combo) != null) {
+                throw new IllegalArgumentException("Duplicate combo id " + combo.getId());
+            }
+            if (combo.getItems().isEmpty() || combo.getDiscountCents() <= 0) {
+                throw new IllegalArgumentException("Combo " + combo.getId() + " needs items and a discount");
+            }
+            List<Integer> named = new ArrayList<>();
+            List<Integer> typed = new ArrayList<>();
+            for (String entry : combo.getItems()) {
+                if ("pizza".equals(entry) || "beverage".equals(entry)) {
+                    typed.add(slot(slotOf, typeSlots, entry));
+                } else {
+                    String name = itemName(menu, entry);
+                    if (name == null) {
+                        throw new IllegalArgumentException("Combo " + combo.getId() + " has unknown item " + entry);
+                    }
+                    named.add(slot(slotOf, nameSlots, name));
+                }
+            }
+            named.addAll(typed);
+            int[] slots = new int[named.size()];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = named.get(i);
+            }
+            combos.add(new CompiledCombo(combo.getName(), combo.getDiscountCents(), slots));
+        }
+        // Biggest discount first; the sort is stable, so equal discounts keep menu order
+        combos.sort((a, b) -> Long.compare(b.discountCents, a.discountCents));
+    }
+
+    // Tax for an order: the delivery address's jurisdiction, or the store's for pickup
+    public TaxRule taxRuleFor(String orderType, String deliveryAddress) {
+        if (!"delivery".equals(orderType) || taxByPrefix.isEmpty()) return storeTax;
+        String postalCode = postalCode(deliveryAddress);
+        if (postalCode == null) return storeTax;
+        for (int length = postalCode.length(); length > 0; length--) {
+            TaxRule rule = taxByPrefix.get(postalCode.substring(0, length));
+            if (rule != null) return rule;
+        }
+        return storeTax;
+    }
+
+    // The coupon for a code, ignoring case and surrounding spaces, or null
+    public Coupon findCoupon(String code) {
+        if (code == null || code.trim().isEmpty()) return null;
+        return couponByCode.get(codeKey(code));
+    }
+
+    public CartQuote quote(Collection<OrderItem> items, String orderType, String deliveryAddress, String couponCode) {
+        long subtotal = pricing.subtotalCents(items);
+
+        List<String> applied = Collections.emptyList();
+        long comboDiscount = 0;
+        if (!combos.isEmpty()) {
+            applied = new ArrayList<>();
+            comboDiscount = Math.min(applyCombos(items, applied), subtotal);
+        }
+
+        Coupon coupon = findCoupon(couponCode);
+        CartQuote.CouponStatus couponStatus;
+        long couponDiscount = 0;
+        if (coupon == null) {
+            couponStatus = couponCode == null || couponCode.trim().isEmpty() ? CartQuote.CouponStatus.NONE : CartQuote.CouponStatus.UNKNOWN;
+        } else if (subtotal < coupon.getMinimumSubtotalCents()) {
+            // The minimum is met by the cart's prices before combos, so a combo never costs it the
+            // coupon; the discount itself is taken from what the combos leave
+            couponStatus = CartQuote.CouponStatus.BELOW_MINIMUM;
+        } else {
+            couponStatus = CartQuote.CouponStatus.APPLIED;
+            long base = subtotal - comboDiscount;
+            couponDiscount = coupon.isPercentOff()
+                ? (base * coupon.getPercentOffBasisPoints() + 5000) / 10000
+                : Math.min(coupon.getAmountOffCents(), base);
+        }
+
+        TaxRule tax = taxRuleFor(orderType, deliveryAddress);
+        long taxable = subtotal - comboDiscount - couponDiscount;
+        // Rounded half up to the cent
+        long taxCents = (taxable * tax.getRateBasisPoints() + 5000) / 10000;
+        return new CartQuote(subtotal, comboDiscount, couponDiscount, taxCents, applied, coupon, couponStatus, tax);
+    }
+
+    // Takes complete combo sets out of the cart's units, one combo at a time, and returns their discount
+    private long applyCombos(Collection<OrderItem> items, List<String> applied) {
+        long[] masks = new long[items.size()];
+        int[] remaining = new int[items.size()];
+        long present = 0;
+        int line = 0;
+        for (OrderItem item : items) {
+            long mask = 0;
+            Long typeBits = item.getType() != null ? typeSlots.get(item.getType()) : null;
+            if (typeBits != null) mask |= typeBits;
+            Long nameBits = item.getName() != null ? nameSlots.get(item.getName()) : null;
+            if (nameBits != null) mask |= nameBits;
+            masks[line] = mask;
+            remaining[line] = item.getQuantity();
+            present |= mask;
+            line++;
+        }
+        if (present == 0) return 0;
+
+        long discount = 0;
+        for (CompiledCombo combo : combos) {
+            int[] taken = new int[combo.slots.length];
+            while (takeSet(combo, masks, remaining, taken)) {
+                discount += combo.discountCents;
+                applied.add(combo.name);
+            }
+        }
+        return discount;
+    }
+
+    // Takes one unit for each of the combo's slots, or puts back what it took and returns false
+    private static boolean takeSet(CompiledCombo combo, long[] masks, int[] remaining, int[] taken) {
+        for (int s = 0; s < combo.slots.length; s++) {
+            long bit = 1L << combo.slots[s];
+            int found = -1;
+            for (int i = 0; i < masks.length; i++) {
+                if (remaining[i] > 0 && (masks[i] & bit) != 0) {
+                    found = i;
+                    break;
+                }
+            }
+            if (found < 0) {
+                for (int t = 0; t < s; t++) {
+                    remaining[taken[t]]++;
+                }
+                return false;
+            }
+            remaining[found]--;
+            taken[s] = found;
+        }
+        return true;
+    }
+
+    private int slot(Map<String, Integer> slotOf, Map<String, Long> slots, String key) {
+        // Types and names share the bit space but not keys, in case an item is called "pizza"
+        String slotKey = (slots == typeSlots ? "type:" : "name:") + key;
+        Integer slot = slotOf.get(slotKey);
+        if (slot == null) {
+            slot = slotOf.size();
+            if (slot >= Long.SIZE) {
+                throw new IllegalArgumentException("Combos may name at most " + Long.SIZE + " different items");
+            }
+            slotOf.put(slotKey, slot);
+            slots.put(key, 1L << slot);
+        }
+        return slot;
+    }
+
+    // The name order items carry for a menu pizza or beverage id
+    private static String itemName(MenuCatalog menu, String id) {
+        Pizza pizza = menu.getPizza(id);
+        if (pizza != null) return pizza.getName();
+        Beverage beverage = menu.getBeverage(id);
+        return beverage != null ? beverage.getName() : null;
+    }
+
+    // The last five-digit run in the address, which also finds the ZIP in "12345-6789"
+    private static String postalCode(String address) {
+        if (address == null) return null;
+        int end = address.length();
+        while (end > 0) {
+            while (end > 0 && !Character.isDigit(address.charAt(end - 1))) end--;
+            int start = end;
+            while (start > 0 && Character.isDigit(address.charAt(start - 1))) start--;
+            if (end - start == POSTAL_CODE_LENGTH) return address.substring(start, end);
+            end = start;
+        }
+        return null;
+    }
+
+    private static boolean isDigits(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isDigit(text.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static String codeKey(String code) {
+        return code.trim().toUpperCase(Locale.ROOT);
+    }
+}
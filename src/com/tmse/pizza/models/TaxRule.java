@@ -0,0 +1,33 @@
+package com.tmse.pizza.models;
+
+import java.util.List;
+
+// A tax jurisdiction: its rate, and the postal code prefixes of delivery addresses it covers.
+// The rule with no prefixes is the store's own rate, used for pickup and unmatched addresses.
+public class TaxRule {
+    private String id;
+    private String name;
+    private long rateBasisPoints; // hundredths of a percent, 825 is 8.25%
+    private List<String> postalPrefixes;
+
+    public TaxRule(String id, String name, double ratePercent, List<String> postalPrefixes) {
+        this.id = id;
+        this.name = name;
+        this.rateBasisPoints = Math.round(ratePercent * 100);
+        this.postalPrefixes = postalPrefixes != null ? List.copyOf(postalPrefixes) : List.of();
+    }
+
+    public String getId() { return id; }
+    public String getName() { return name; }
+    public long getRateBasisPoints() { return rateBasisPoints; }
+    public double getRatePercent() { return rateBasisPoints / 100.0; }
+    public List<String> getPostalPrefixes() { return postalPrefixes; }
+
+    // "8%", "8.25%"
+    public String getRateLabel() {
+        String rate = Money.format(rateBasisPoints);
+        if (rate.endsWith(".00")) rate = rate.substring(0, rate.length() - 3);
+        else if (rate.endsWith("0")) rate = rate.substring(0, rate.length() - 1);
+        return rate + "%";
+    }
+}
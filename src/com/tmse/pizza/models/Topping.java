@@ -4,16 +4,17 @@ package com.tmse.pizza.models;
 public class Topping {
     private String id;
     private String name;
-    private double price;
+    private long priceCents;
 
     public Topping(String id, String name, double price) {
         this.id = id;
         this.name = name;
-        this.price = price;
+        this.priceCents = Money.cents(price);
     }
 
     public String getId() { return id; }
     public String getName() { return name; }
-    public double getPrice() { return price; }
+    public double getPrice() { return Money.dollars(priceCents); }
+    public long getPriceCents() { return priceCents; }
 }
 
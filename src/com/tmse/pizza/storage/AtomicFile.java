@@ -0,0 +1,52 @@
+package com.tmse.pizza.storage;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Replaces a whole file without ever exposing a half-written version: the new contents go to a
+// temp file in the same directory, are fsynced, and are then renamed over the target in one step.
+// A crash at any point leaves either the complete old file or the complete new one.
+final class AtomicFile {
+    private AtomicFile() {
+    }
+
+    interface Writer {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    static void write(File target, Writer writer) throws IOException {
+        File dir = target.getAbsoluteFile().getParentFile();
+        dir.mkdirs();
+        File temp = File.createTempFile(target.getName() + ".", ".tmp", dir);
+        try {
+            try (FileOutputStream fileOut = new FileOutputStream(temp);
+                 OutputStream out = new BufferedOutputStream(fileOut, 64 * 1024)) {
+                writer.writeTo(out);
+                out.flush();
+                fileOut.getChannel().force(true);
+            }
+            try {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+        syncDirectory(dir.toPath());
+    }
+
+    // Makes the rename itself durable. Not every platform can open a directory, so this is best effort.
+    private static void syncDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // The rename is still atomic, only its durability across power loss is weaker
+        }
+    }
+}
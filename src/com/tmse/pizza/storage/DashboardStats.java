@@ -0,0 +1,22 @@
+package com.tmse.pizza.storage;
+
+// Snapshot of the admin dashboard counters, read from aggregates the order repository
+// keeps current on every write instead of being recomputed from the order list
+public class DashboardStats {
+    private final int pendingCount;
+    private final int preparingCount;
+    private final int readyCount;
+    private final long todayRevenueCents;
+
+    DashboardStats(int pendingCount, int preparingCount, int readyCount, long todayRevenueCents) {
+        this.pendingCount = pendingCount;
+        this.preparingCount = preparingCount;
+        this.readyCount = readyCount;
+        this.todayRevenueCents = todayRevenueCents;
+    }
+
+    public int getPendingCount() { return pendingCount; }
+    public int getPreparingCount() { return preparingCount; }
+    public int getReadyCount() { return readyCount; }
+    public long getTodayRevenueCents() { return todayRevenueCents; }
+}
@@ -0,0 +1,51 @@
+package com.tmse.pizza.storage;
+
+import com.tmse.pizza.models.User;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Cached list of driver usernames shared by every admin table row.
+// Reloaded only when users.txt changes: saveUser invalidates it directly, and edits made by
+// other terminals are noticed by a modification-time check made at most once per interval.
+class DriverRoster {
+    private static final long RECHECK_INTERVAL_MILLIS = 2000;
+
+    private final File file;
+    private List<String> drivers;
+    private long loadedModified;
+    private long loadedLength;
+    private long lastChecked;
+
+    DriverRoster(String path) {
+        this.file = new File(path);
+    }
+
+    synchronized List<String> getDriverNames() throws IOException {
+        long now = System.currentTimeMillis();
+        if (drivers != null && now - lastChecked < RECHECK_INTERVAL_MILLIS) {
+            return drivers;
+        }
+        lastChecked = now;
+        if (drivers != null && file.lastModified() == loadedModified && file.length() == loadedLength) {
+            return drivers;
+        }
+
+        loadedModified = file.lastModified();
+        loadedLength = file.length();
+        List<String> names = new ArrayList<>();
+        for (User user : FileStorage.getAllUsers()) {
+            if ("driver".equals(user.getRole())) {
+                names.add(user.getUsername());
+            }
+        }
+        drivers = Collections.unmodifiableList(names);
+        return drivers;
+    }
+
+    synchronized void invalidate() {
+        drivers = null;
+    }
+}
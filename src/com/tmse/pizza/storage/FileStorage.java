@@ -2,290 +2,371 @@ package com.tmse.pizza.storage;
 
 import com.tmse.pizza.models.*;
 import java.io.*;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.nio.channels.FileLock;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
 
 // File-based storage system for users and orders
 public class FileStorage {
-    private static final String DATA_DIR = "data";
+    // Everything the app stores lives under here, relative to the working directory
+    static final String DATA_DIR = "data";
     private static final String USERS_FILE = DATA_DIR + "/users.txt";
     private static final String ORDERS_FILE = DATA_DIR + "/orders.txt";
     private static final String DELIVERIES_FILE = DATA_DIR + "/deliveries.txt";
     private static final String TIPS_FILE = DATA_DIR + "/tips.txt";
-    private static final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    private static final String SYMBOLS_FILE = DATA_DIR + "/symbols.txt";
+    private static final String ORDERS_LOCK_FILE = DATA_DIR + "/orders.lock";
+    private static final OrderLog orderLog = new OrderLog(ORDERS_FILE, ORDERS_LOCK_FILE);
+    private static final OrderFeed orderFeed = new OrderFeed();
+    private static final OrderRepository orderRepository = new OrderRepository(orderFeed);
+    // Catching up with another terminal's writes publishes them on the order feed
+    private static final FileWatcher orderFileWatcher = new FileWatcher(ORDERS_FILE, "order-file-watcher", FileStorage::orders);
+    private static final String USERS_LOCK_FILE = DATA_DIR + "/users.lock";
+    private static final UserStore userStore = new UserStore(USERS_FILE, USERS_LOCK_FILE);
+    private static final DriverRoster driverRoster = new DriverRoster(USERS_FILE);
+    private static final TipLedger tipLedger = new TipLedger(TIPS_FILE);
+    private static final OrderItemCodec itemCodec = new OrderItemCodec(new SymbolTable(SYMBOLS_FILE, orderLog));
+    private static int loadedGeneration = -1;
+    // orderId -> outcome of the claim on it being written right now
+    private static final ConcurrentMap<String, CompletableFuture<Boolean>> claimsInFlight = new ConcurrentHashMap<>();
 
     static {
         new File(DATA_DIR).mkdirs();
     }
 
+    // Passwords are stored as salted PBKDF2 hashes, never as typed
     public static void saveUser(User user) throws IOException {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(USERS_FILE, true))) {
-            pw.println(user.getUsername() + "|" + user.getPassword() + "|" + user.getRole());
+        userStore.append(withHashedPassword(user));
+        driverRoster.invalidate();
+    }
+
+    // Creates the account unless the username is already taken; returns whether it was created.
+    // A lookup in the username index decides, so the password is only hashed for new accounts.
+    public static boolean registerUser(User user) throws IOException {
+        boolean created = userStore.registerIfAbsent(user.getUsername(), () -> withHashedPassword(user));
+        if (created) {
+            driverRoster.invalidate();
+        }
+        return created;
+    }
+
+    // Returns the account if the password matches, otherwise null. The lookup is an index hit and the
+    // check is one PBKDF2 derivation, which is deliberately slow: call this off the FX thread.
+    // Accounts still holding a plaintext or weaker hash are upgraded on their first successful login.
+    public static User authenticate(String username, String password) throws IOException {
+        User user = userStore.get(username);
+        if (user == null || !PasswordHasher.verify(password, user.getPassword())) {
+            return null;
         }
+        if (PasswordHasher.needsRehash(user.getPassword())) {
+            user = new User(user.getUsername(), PasswordHasher.hash(password), user.getRole());
+            userStore.updatePassword(user.getUsername(), user.getPassword());
+        }
+        return user;
+    }
+
+    private static User withHashedPassword(User user) {
+        if (PasswordHasher.isHashed(user.getPassword())) return user;
+        return new User(user.getUsername(), PasswordHasher.hash(user.getPassword()), user.getRole());
+    }
+
+    // Driver usernames, cached until users.txt changes
+    public static List<String> getDriverNames() throws IOException {
+        return driverRoster.getDriverNames();
     }
 
     public static User getUser(String username) throws IOException {
-        File file = new File(USERS_FILE);
-        if (!file.exists()) return null;
+        return userStore.get(username);
+    }
+
+    public static void saveOrder(Order order) throws IOException {
+        // New orders and updates alike are a single appended record
+        commit(List.of(order), false);
+    }
+    
+    public static void updateOrder(Order updatedOrder) throws IOException {
+        commit(List.of(updatedOrder), true);
+    }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length == 3 && parts[0].equals(username)) {
-                    return new User(parts[0], parts[1], parts[2]);
+    // Compare-and-set on each order's version: an order saved from a copy that another terminal has
+    // changed since it was read is rejected with StaleOrderException instead of overwriting that change.
+    // Runs under the cross-process lock, after catching up with what other terminals wrote, so nothing
+    // can slip in between the check and the append. Nothing is written if any order in the batch is stale.
+    @SuppressWarnings("try")
+    private static void commit(Collection<Order> batch, boolean existingOnly) throws IOException {
+        synchronized (orderLog) {
+            try (FileLock lock = orderLog.lock()) {
+                OrderRepository repository = orders();
+                List<Order> written = new ArrayList<>();
+                for (Order order : batch) {
+                    long current = repository.versionOf(order.getOrderId());
+                    if (current < 0 && existingOnly) continue;
+                    long expected = Math.max(current, 0);
+                    if (order.getVersion() != expected) {
+                        throw new StaleOrderException(order.getOrderId(), order.getVersion(), expected);
+                    }
+                    written.add(order);
                 }
+                appendLocked(repository, written);
             }
         }
-        return null;
     }
 
-    public static void saveOrder(Order order) throws IOException {
-        // Check if order already exists and update it
-        List<Order> allOrders = getAllOrders();
-        boolean orderExists = false;
-        for (Order o : allOrders) {
-            if (o.getOrderId().equals(order.getOrderId())) {
-                orderExists = true;
-                break;
-            }
+    // Writes orders whose versions have been checked, bumping each version. The caller holds the log lock.
+    private static void appendLocked(OrderRepository repository, List<Order> orders) throws IOException {
+        Map<String, String> records = new LinkedHashMap<>();
+        for (Order order : orders) {
+            order.setStatus(normalizeStatus(order.getStatus()));
+            records.put(order.getOrderId(), formatOrderLine(order, order.getVersion() + 1));
         }
-        
-        if (orderExists) {
-            // Update existing order by rewriting all orders
-            updateOrder(order);
-        } else {
-            // Append new order
-            try (PrintWriter pw = new PrintWriter(new FileWriter(ORDERS_FILE, true))) {
-                String dateStr = order.getOrderDate() != null ? dateFormat.format(order.getOrderDate()) : dateFormat.format(new Date());
-                pw.println(order.getOrderId() + "|" + order.getUsername() + "|" + 
-                          (order.getCustomerName() != null ? order.getCustomerName() : "") + "|" +
-                          order.getSubtotal() + "|" + order.getTax() + "|" + order.getTotal() + "|" +
-                          order.getStatus() + "|" + dateStr + "|" +
-                          (order.getOrderType() != null ? order.getOrderType() : "pickup") + "|" +
-                          (order.getDeliveryAddress() != null ? order.getDeliveryAddress() : "") + "|" +
-                          (order.getAssignedDriverId() != null ? order.getAssignedDriverId() : "") + "|" +
-                          (order.getAssignedDriverName() != null ? order.getAssignedDriverName() : "") + "|" +
-                          (order.getPaymentMethod() != null ? order.getPaymentMethod() : "") + "|" +
-                          (order.getSpecialInstructions() != null ? order.getSpecialInstructions() : ""));
-            }
+        orderLog.appendAll(records);
+        for (Order order : orders) {
+            order.setVersion(order.getVersion() + 1);
+            repository.put(order);
         }
     }
-    
-    public static void updateOrder(Order updatedOrder) throws IOException {
-        List<Order> allOrders = getAllOrders();
-        boolean found = false;
-        for (int i = 0; i < allOrders.size(); i++) {
-            if (allOrders.get(i).getOrderId().equals(updatedOrder.getOrderId())) {
-                allOrders.set(i, updatedOrder);
-                found = true;
-                break;
+
+    // Assigns a ready order to a driver if nobody has it yet; exactly one of any number of
+    // concurrent callers gets true. Claims racing inside this process are settled lock-free by
+    // putIfAbsent on the in-flight map, and the others wait for that claim's outcome: if it fails
+    // with an exception nobody got the order, so they try again rather than report it taken.
+    // The winner re-checks the durable state under the cross-process lock, so a terminal elsewhere
+    // cannot win the same order either.
+    public static boolean claimOrder(String orderId, String driverId) throws IOException {
+        while (true) {
+            CompletableFuture<Boolean> mine = new CompletableFuture<>();
+            CompletableFuture<Boolean> inFlight = claimsInFlight.putIfAbsent(orderId, mine);
+            if (inFlight != null) {
+                if (settled(inFlight)) return false;
+                continue;
             }
+            boolean claimed;
+            try {
+                claimed = claimLocked(orderId, driverId);
+            } catch (IOException | RuntimeException e) {
+                claimsInFlight.remove(orderId, mine);
+                mine.completeExceptionally(e);
+                throw e;
+            }
+            claimsInFlight.remove(orderId, mine);
+            mine.complete(claimed);
+            return claimed;
+        }
+    }
+
+    // Waits for another caller's claim; true if it decided the order, false if it failed
+    private static boolean settled(CompletableFuture<Boolean> claim) {
+        try {
+            claim.join();
+            return true;
+        } catch (CompletionException | CancellationException e) {
+            return false;
         }
-        if (found) {
-            // Rewrite all orders
-            try (PrintWriter pw = new PrintWriter(new FileWriter(ORDERS_FILE, false))) {
-                for (Order order : allOrders) {
-                    String dateStr = order.getOrderDate() != null ? dateFormat.format(order.getOrderDate()) : dateFormat.format(new Date());
-                    pw.println(order.getOrderId() + "|" + order.getUsername() + "|" + 
-                              (order.getCustomerName() != null ? order.getCustomerName() : "") + "|" +
-                              order.getSubtotal() + "|" + order.getTax() + "|" + order.getTotal() + "|" +
-                              order.getStatus() + "|" + dateStr + "|" +
-                              (order.getOrderType() != null ? order.getOrderType() : "pickup") + "|" +
-                              (order.getDeliveryAddress() != null ? order.getDeliveryAddress() : "") + "|" +
-                              (order.getAssignedDriverId() != null ? order.getAssignedDriverId() : "") + "|" +
-                              (order.getAssignedDriverName() != null ? order.getAssignedDriverName() : "") + "|" +
-                              (order.getPaymentMethod() != null ? order.getPaymentMethod() : "") + "|" +
-                              (order.getSpecialInstructions() != null ? order.getSpecialInstructions() : ""));
+    }
+
+    @SuppressWarnings("try")
+    private static boolean claimLocked(String orderId, String driverId) throws IOException {
+        synchronized (orderLog) {
+            try (FileLock lock = orderLog.lock()) {
+                OrderRepository repository = orders();
+                Order order = repository.get(orderId);
+                if (order == null || order.getOrderStatus() != OrderStatus.READY
+                        || (order.getAssignedDriverId() != null && !order.getAssignedDriverId().trim().isEmpty())) {
+                    return false;
                 }
+                order.setAssignedDriverId(driverId);
+                order.setAssignedDriverName(driverId);
+                order.setStatus(OrderStatus.OUT_FOR_DELIVERY.getCode());
+                appendLocked(repository, List.of(order));
+                return true;
             }
         }
     }
 
-    public static List<Order> getOrdersByUser(String username) throws IOException {
-        List<Order> orders = new ArrayList<>();
-        File file = new File(ORDERS_FILE);
-        if (!file.exists()) return orders;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 2 && parts[1].equals(username)) {
-                    Order order = parseOrderFromLine(parts);
-                    orders.add(order);
+    // Deletes every matching order in one linear, atomic rewrite of the order file; returns how many went
+    @SuppressWarnings("try")
+    public static int deleteOrders(Predicate<Order> filter) throws IOException {
+        synchronized (orderLog) {
+            try (FileLock lock = orderLog.lock()) {
+                OrderRepository repository = orders();
+                Set<String> doomed = new HashSet<>();
+                for (Order order : repository.findAll()) {
+                    if (filter.test(order)) doomed.add(order.getOrderId());
                 }
+                List<String> removed = orderLog.removeAll(doomed);
+                repository.removeAll(removed);
+                return removed.size();
             }
         }
-        return orders;
+    }
+
+    // Delivers every order change, including ones other terminals make, until the subscription is
+    // cancelled. The listener runs on a storage thread.
+    public static OrderFeed.Subscription subscribeToOrders(OrderFeed.Listener listener) {
+        orderFileWatcher.start();
+        return orderFeed.subscribe(listener);
+    }
+
+    public static List<Order> getOrdersByUser(String username) throws IOException {
+        return orders().findByCustomer(username);
     }
     
     public static List<Order> getAllOrders() throws IOException {
-        List<Order> orders = new ArrayList<>();
-        File file = new File(ORDERS_FILE);
-        if (!file.exists()) return orders;
+        return orders().findAll();
+    }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 2) {
-                    Order order = parseOrderFromLine(parts);
-                    orders.add(order);
-                }
+    // Order history a page at a time, newest first; pass the previous page's cursor, or null to start
+    public static OrderPage findOrdersPage(OrderQuery query, String cursor, int limit) throws IOException {
+        return orders().findPage(query, cursor, limit);
+    }
+
+    // Answered from counters the repository keeps current, without touching the order list
+    public static DashboardStats getDashboardStats() throws IOException {
+        OrderRepository repository = orders();
+        return new DashboardStats(repository.countByStatus(OrderStatus.PENDING), repository.countByStatus(OrderStatus.PREPARING),
+                                  repository.countByStatus(OrderStatus.READY), repository.rollupFor(LocalDate.now()).getTotalSalesCents());
+    }
+
+    public static SalesRollup getDailyRollup(LocalDate day) throws IOException {
+        return orders().rollupFor(day);
+    }
+
+    public static SalesRollup getAllTimeRollup() throws IOException {
+        return orders().rollupAllTime();
+    }
+
+    // Loads the repository once, and again only if the order file was replaced underneath us.
+    // Records other terminals appended since the last call are applied on top. Never takes the file lock.
+    private static OrderRepository orders() throws IOException {
+        synchronized (orderLog) {
+            int generation = orderLog.generation();
+            if (generation != loadedGeneration) {
+                orderRepository.load(orderLog.mapLive(FileStorage::parseOrder));
+                loadedGeneration = generation;
             }
+            for (Order order : orderLog.drainChanged(FileStorage::parseOrder)) {
+                orderRepository.put(order);
+            }
+            return orderRepository;
         }
-        return orders;
+    }
+
+    private static String formatOrderLine(Order order, long version) throws IOException {
+        long orderTime = order.getOrderTimeMillis() >= 0 ? order.getOrderTimeMillis() : System.currentTimeMillis();
+        return order.getOrderId() + "|" + order.getUsername() + "|" + 
+               clean(order.getCustomerName()) + "|" +
+               Money.format(order.getSubtotalCents()) + "|" + Money.format(order.getTaxCents()) + "|" +
+               Money.format(order.getTotalCents()) + "|" +
+               order.getStatus() + "|" + orderTime + "|" +
+               (order.getOrderType() != null ? order.getOrderType() : "pickup") + "|" +
+               clean(order.getDeliveryAddress()) + "|" +
+               (order.getAssignedDriverId() != null ? order.getAssignedDriverId() : "") + "|" +
+               (order.getAssignedDriverName() != null ? order.getAssignedDriverName() : "") + "|" +
+               (order.getPaymentMethod() != null ? order.getPaymentMethod() : "") + "|" +
+               clean(order.getSpecialInstructions()) + "|" +
+               itemCodec.encode(order.getItems()) + "|" +
+               version + "|" +
+               clean(order.getCouponCode());
+    }
+
+    // Known statuses are kept in their canonical spelling, whether read or written; anything else is kept as is
+    private static String normalizeStatus(String text) {
+        OrderStatus status = OrderStatus.fromCode(text);
+        return status != null ? status.getCode() : text;
+    }
+
+    // Free text must not break the one-line, pipe-delimited record format
+    private static String clean(String text) {
+        if (text == null) return "";
+        return text.replace('|', '/').replace('\n', ' ').replace('\r', ' ');
     }
     
-    private static Order parseOrderFromLine(String[] parts) {
-        Order order = new Order(parts[0], parts[1]);
-        if (parts.length > 2 && !parts[2].isEmpty()) order.setCustomerName(parts[2]);
-        if (parts.length > 3 && !parts[3].isEmpty()) order.setSubtotal(Double.parseDouble(parts[3]));
-        if (parts.length > 4 && !parts[4].isEmpty()) order.setTax(Double.parseDouble(parts[4]));
-        if (parts.length > 5 && !parts[5].isEmpty()) order.setTotalAmount(Double.parseDouble(parts[5]));
-        if (parts.length > 6 && !parts[6].isEmpty()) order.setStatus(parts[6]);
-        if (parts.length > 7 && !parts[7].isEmpty()) {
-            try {
-                order.setOrderDate(dateFormat.parse(parts[7]));
-            } catch (ParseException e) {
-                order.setOrderDate(new Date());
-            }
+    // Builds an Order straight from the scanner's buffer; only fields that are present become Strings
+    private static Order parseOrder(OrderRecordScanner record) throws IOException {
+        Order order = new Order(record.field(0), record.field(1));
+        if (record.has(2)) order.setCustomerName(record.field(2));
+        if (record.has(6)) order.setStatus(normalizeStatus(record.field(6)));
+        if (record.has(7)) {
+            long millis = record.parseEpochMillis(7);
+            order.setOrderTimeMillis(millis >= 0 ? millis : System.currentTimeMillis());
         }
-        if (parts.length > 8 && !parts[8].isEmpty()) order.setOrderType(parts[8]);
-        if (parts.length > 9 && !parts[9].isEmpty()) order.setDeliveryAddress(parts[9]);
-        if (parts.length > 10 && !parts[10].isEmpty()) order.setAssignedDriverId(parts[10]);
-        if (parts.length > 11 && !parts[11].isEmpty()) order.setAssignedDriverName(parts[11]);
-        if (parts.length > 12 && !parts[12].isEmpty()) order.setPaymentMethod(parts[12]);
-        if (parts.length > 13 && !parts[13].isEmpty()) order.setSpecialInstructions(parts[13]);
+        if (record.has(8)) order.setOrderType(record.field(8));
+        if (record.has(9)) order.setDeliveryAddress(record.field(9));
+        if (record.has(16)) order.setCouponCode(record.field(16));
+        // The stored totals are what the customer was charged, so they go in after everything
+        // that would reprice the cart, and the items are set without repricing
+        if (record.has(3)) order.setSubtotalCents(record.parseCents(3));
+        if (record.has(4)) order.setTaxCents(record.parseCents(4));
+        if (record.has(5)) order.setTotalCents(record.parseCents(5));
+        if (record.has(10)) order.setAssignedDriverId(record.field(10));
+        if (record.has(11)) order.setAssignedDriverName(record.field(11));
+        if (record.has(12)) order.setPaymentMethod(record.field(12));
+        if (record.has(13)) order.setSpecialInstructions(record.field(13));
+        if (record.has(14)) order.setItems(itemCodec.decode(record.buffer(), record.start(14), record.end(14)));
+        if (record.has(15)) order.setVersion(Math.max(record.parseLong(15), 0));
         return order;
     }
     
     public static List<User> getAllUsers() throws IOException {
-        List<User> users = new ArrayList<>();
-        File file = new File(USERS_FILE);
-        if (!file.exists()) return users;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length == 3) {
-                    users.add(new User(parts[0], parts[1], parts[2]));
-                }
-            }
-        }
-        return users;
+        return userStore.all();
     }
     
     public static List<Order> getOrdersByDriver(String driverId) throws IOException {
-        List<Order> orders = new ArrayList<>();
-        File file = new File(ORDERS_FILE);
-        if (!file.exists()) return orders;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length > 10 && parts[10].equals(driverId)) {
-                    Order order = parseOrderFromLine(parts);
-                    orders.add(order);
-                }
-            }
-        }
-        return orders;
+        return orders().findByDriver(driverId);
     }
     
     public static List<Order> getAvailableDeliveryOrders() throws IOException {
-        List<Order> orders = new ArrayList<>();
-        File file = new File(ORDERS_FILE);
-        if (!file.exists()) return orders;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                String[] parts = line.split("\\|");
-                // Check if it's a delivery order
-                if (parts.length > 8) {
-                    String orderType = parts[8].trim().toLowerCase();
-                    if ("delivery".equals(orderType)) {
-                        // Only include orders that are ready and not yet assigned
-                        if (parts.length > 6) {
-                            String status = parts[6].trim().toLowerCase();
-                            if ("ready".equals(status)) {
-                                // Check if driver is not assigned (index 10 is assignedDriverId)
-                                String driverId = (parts.length > 10) ? parts[10].trim() : "";
-                                if (driverId.isEmpty()) {
-                                    Order order = parseOrderFromLine(parts);
-                                    if (order != null) {
-                                        // Double-check the parsed order's status and type
-                                        String parsedStatus = order.getStatus() != null ? order.getStatus().trim().toLowerCase() : "";
-                                        String parsedType = order.getOrderType() != null ? order.getOrderType().trim().toLowerCase() : "";
-                                        String parsedDriverId = order.getAssignedDriverId() != null ? order.getAssignedDriverId().trim() : "";
-                                        if ("ready".equals(parsedStatus) && "delivery".equals(parsedType) && parsedDriverId.isEmpty()) {
-                                            orders.add(order);
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return orders;
+        return orders().findAvailableDeliveries();
     }
     
-    public static void saveTip(String orderId, String driverId, double tipAmount) throws IOException {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(TIPS_FILE, true))) {
-            pw.println(orderId + "|" + driverId + "|" + tipAmount + "|" + dateFormat.format(new Date()));
-        }
+    public static void saveTip(String orderId, String driverId, long tipCents) throws IOException {
+        tipLedger.record(orderId, driverId, tipCents);
     }
     
     public static List<TipRecord> getTipsByDriver(String driverId) throws IOException {
-        List<TipRecord> tips = new ArrayList<>();
-        File file = new File(TIPS_FILE);
-        if (!file.exists()) return tips;
+        return tipLedger.tipsFor(driverId);
+    }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 2 && parts[1].equals(driverId)) {
-                    TipRecord tip = new TipRecord(parts[0], parts[1], Double.parseDouble(parts[2]), 
-                                                  parts.length > 3 ? parts[3] : "");
-                    tips.add(tip);
-                }
-            }
-        }
-        return tips;
+    // Lifetime, today's and this week's tips, answered from running totals
+    public static TipSummary getTipSummary(String driverId) throws IOException {
+        return tipLedger.summaryFor(driverId, LocalDate.now());
     }
     
     public static class TipRecord {
         private String orderId;
         private String driverId;
-        private double amount;
+        private long amountCents;
         private String date;
         
-        public TipRecord(String orderId, String driverId, double amount, String date) {
+        public TipRecord(String orderId, String driverId, long amountCents, String date) {
             this.orderId = orderId;
             this.driverId = driverId;
-            this.amount = amount;
+            this.amountCents = amountCents;
             this.date = date;
         }
         
         public String getOrderId() { return orderId; }
         public String getDriverId() { return driverId; }
-        public double getAmount() { return amount; }
+        public long getAmountCents() { return amountCents; }
+        public double getAmount() { return Money.dollars(amountCents); }
         public String getDate() { return date; }
     }
 
     public static void initializeDefaultUsers() throws IOException {
-        // Ensure default users exist
+        // Ensure default users exist; each check is an index lookup, so this is cheap on every start
         User[] defaultUsers = {
             new User("customer", "password123", "customer"),
             new User("admin", "admin123", "admin"),
@@ -293,10 +374,7 @@ public class FileStorage {
         };
 
         for (User defaultUser : defaultUsers) {
-            User existing = getUser(defaultUser.getUsername());
-            if (existing == null) {
-                saveUser(defaultUser);
-            }
+            registerUser(defaultUser);
         }
     }
 }
@@ -0,0 +1,56 @@
+package com.tmse.pizza.storage;
+
+import java.io.IOException;
+import java.nio.file.*;
+
+// Runs a callback whenever a file in the data directory is written, including by other terminals.
+// Watches on one daemon thread, started on demand.
+class FileWatcher {
+    private final Path file;
+    private final String name;
+    private final StorageService.IORunnable onChange;
+    private Thread thread;
+
+    FileWatcher(String path, String name, StorageService.IORunnable onChange) {
+        this.file = Paths.get(path).toAbsolutePath();
+        this.name = name;
+        this.onChange = onChange;
+    }
+
+    synchronized void start() {
+        if (thread != null) return;
+        thread = new Thread(this::watch, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watch() {
+        Path dir = file.getParent();
+        try (WatchService watcher = dir.getFileSystem().newWatchService()) {
+            Files.createDirectories(dir);
+            // Rewrites arrive as a rename onto the file, so creation matters as much as modification
+            dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            while (true) {
+                WatchKey key = watcher.take();
+                boolean touched = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                        touched = true;
+                    }
+                }
+                if (touched) {
+                    try {
+                        onChange.run();
+                    } catch (IOException e) {
+                        System.err.println(name + ": could not reload " + file.getFileName() + ": " + e.getMessage());
+                    }
+                }
+                if (!key.reset()) break;
+            }
+        } catch (IOException e) {
+            System.err.println(name + " stopped: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
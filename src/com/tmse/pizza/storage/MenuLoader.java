@@ -0,0 +1,213 @@
+package com.tmse.pizza.storage;
+
+import com.tmse.pizza.models.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+// Loads the menu from data/menu.txt, writing the built-in menu there the first time, and reloads
+// it whenever the file is saved. A reload is installed only if the file parses, passes the
+// catalog's checks and carries a higher version than the menu in use; otherwise the current menu
+// stays and the problem is logged.
+//
+// Format, one entry per line ('#' starts a comment):
+//   version|<n>
+//   topping|<id>|<name>|<price>
+//   pizza|<id>|<name>|<description>|<base price>|<topping id>,<topping id>,...
+//   beverage|<id>|<name>|<description>|<small price>|<medium price>|<large price>
+//   tax|<id>|<name>|<rate %>|<postal prefix>,<postal prefix>,...   (no prefixes: the store's rate)
+//   combo|<id>|<name>|<item>,<item>,...|<discount>   (item: pizza, beverage, or a pizza or beverage id)
+//   coupon|<code>|<description>|<percent off>% or <amount off>|<minimum subtotal>
+// A file without tax lines keeps the built-in tax rules.
+public final class MenuLoader {
+    private static final String MENU_FILE = FileStorage.DATA_DIR + "/menu.txt";
+    private static final FileWatcher watcher = new FileWatcher(MENU_FILE, "menu-file-watcher", MenuLoader::reload);
+
+    private MenuLoader() {
+    }
+
+    // Installs the menu file and starts watching it. If it cannot be read, the menu in use stays.
+    public static synchronized void start() throws IOException {
+        File file = new File(MENU_FILE);
+        if (!file.exists()) {
+            MenuCatalog builtIn = MenuData.getBuiltInCatalog();
+            write(file, MenuCatalog.of(1, builtIn.getToppings(), builtIn.getPizzas(), builtIn.getBeverages(),
+                                       builtIn.getTaxRules(), builtIn.getComboDeals(), builtIn.getCoupons()));
+        }
+        watcher.start();
+        reload();
+    }
+
+    static synchronized void reload() throws IOException {
+        MenuCatalog loaded = read(new File(MENU_FILE));
+        long current = MenuData.getCatalog().getVersion();
+        if (loaded.getVersion() > current) {
+            MenuData.install(loaded);
+        } else if (loaded.getVersion() < current) {
+            System.err.println("Ignoring " + MENU_FILE + ": version " + loaded.getVersion() +
+                               " is older than the menu in use (" + current + ")");
+        }
+    }
+
+    static MenuCatalog read(File file) throws IOException {
+        long version = -1;
+        List<Topping> toppings = new ArrayList<>();
+        List<Pizza> pizzas = new ArrayList<>();
+        List<Beverage> beverages = new ArrayList<>();
+        List<TaxRule> taxRules = new ArrayList<>();
+        List<ComboDeal> comboDeals = new ArrayList<>();
+        List<Coupon> coupons = new ArrayList<>();
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split("\\|", -1);
+            try {
+                switch (parts[0]) {
+                    case "version":
+                        expectFields(parts, 2);
+                        version = Long.parseLong(parts[1].trim());
+                        break;
+                    case "topping":
+                        expectFields(parts, 4);
+                        toppings.add(new Topping(id(parts[1]), name(parts[2]), price(parts[3])));
+                        break;
+                    case "pizza":
+                        expectFields(parts, 6);
+                        pizzas.add(new Pizza(id(parts[1]), name(parts[2]), parts[3].trim(), price(parts[4]),
+                                             ids(parts[5])));
+                        break;
+                    case "beverage":
+                        expectFields(parts, 7);
+                        beverages.add(new Beverage(id(parts[1]), name(parts[2]), parts[3].trim(),
+                                                   price(parts[4]), price(parts[5]), price(parts[6])));
+                        break;
+                    case "tax":
+                        expectFields(parts, 5);
+                        taxRules.add(new TaxRule(id(parts[1]), name(parts[2]), percent(parts[3]), ids(parts[4])));
+                        break;
+                    case "combo":
+                        expectFields(parts, 5);
+                        comboDeals.add(new ComboDeal(id(parts[1]), name(parts[2]), ids(parts[3]), price(parts[4])));
+                        break;
+                    case "coupon":
+                        expectFields(parts, 5);
+                        String off = parts[3].trim();
+                        boolean isPercent = off.endsWith("%");
+                        double value = isPercent ? percent(off.substring(0, off.length() - 1)) : price(off);
+                        coupons.add(new Coupon(id(parts[1]), name(parts[2]), isPercent ? value : 0, isPercent ? 0 : value,
+                                               price(parts[4])));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown entry '" + parts[0] + "'");
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IOException(file.getName() + " line " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+        if (version <= 0) {
+            throw new IOException(file.getName() + " needs a positive version line");
+        }
+        if (taxRules.isEmpty()) {
+            taxRules = MenuData.getBuiltInCatalog().getTaxRules();
+        }
+        try {
+            return MenuCatalog.of(version, toppings, pizzas, beverages, taxRules, comboDeals, coupons);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(file.getName() + ": " + e.getMessage());
+        }
+    }
+
+    static void write(File file, MenuCatalog menu) throws IOException {
+        AtomicFile.write(file, out -> {
+            PrintWriter pw = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            pw.println("# TMSE Pizza menu. Raise the version after every change; running terminals reload it on save.");
+            pw.println("version|" + menu.getVersion());
+            for (Topping topping : menu.getToppings()) {
+                pw.println("topping|" + topping.getId() + "|" + clean(topping.getName()) + "|" + Money.format(topping.getPriceCents()));
+            }
+            for (Pizza pizza : menu.getPizzas()) {
+                pw.println("pizza|" + pizza.getId() + "|" + clean(pizza.getName()) + "|" + clean(pizza.getDescription()) + "|" +
+                           Money.format(pizza.getBasePriceCents()) + "|" + String.join(",", pizza.getDefaultToppings()));
+            }
+            for (Beverage beverage : menu.getBeverages()) {
+                pw.println("beverage|" + beverage.getId() + "|" + clean(beverage.getName()) + "|" + clean(beverage.getDescription()) + "|" +
+                           Money.format(beverage.getPriceCents(BeverageSize.SMALL)) + "|" +
+                           Money.format(beverage.getPriceCents(BeverageSize.MEDIUM)) + "|" +
+                           Money.format(beverage.getPriceCents(BeverageSize.LARGE)));
+            }
+            for (TaxRule tax : menu.getTaxRules()) {
+                pw.println("tax|" + tax.getId() + "|" + clean(tax.getName()) + "|" + Money.format(tax.getRateBasisPoints()) + "|" +
+                           String.join(",", tax.getPostalPrefixes()));
+            }
+            for (ComboDeal combo : menu.getComboDeals()) {
+                pw.println("combo|" + combo.getId() + "|" + clean(combo.getName()) + "|" + String.join(",", combo.getItems()) + "|" +
+                           Money.format(combo.getDiscountCents()));
+            }
+            for (Coupon coupon : menu.getCoupons()) {
+                String off = coupon.isPercentOff() ? Money.format(coupon.getPercentOffBasisPoints()) + "%"
+                                                   : Money.format(coupon.getAmountOffCents());
+                pw.println("coupon|" + coupon.getCode() + "|" + clean(coupon.getDescription()) + "|" + off + "|" +
+                           Money.format(coupon.getMinimumSubtotalCents()));
+            }
+            pw.flush();
+        });
+    }
+
+    private static void expectFields(String[] parts, int count) {
+        if (parts.length != count) {
+            throw new IllegalArgumentException("'" + parts[0] + "' needs " + count + " fields, found " + parts.length);
+        }
+    }
+
+    private static String id(String text) {
+        String id = text.trim();
+        if (id.isEmpty() || id.contains(",")) throw new IllegalArgumentException("bad id '" + text + "'");
+        return id;
+    }
+
+    private static String name(String text) {
+        String name = text.trim();
+        if (name.isEmpty()) throw new IllegalArgumentException("missing name");
+        return name;
+    }
+
+    private static double price(String text) {
+        return hundredths(text, "price");
+    }
+
+    private static double percent(String text) {
+        return hundredths(text, "percentage");
+    }
+
+    // Parsed exactly to two decimal places (cents, or basis points for a percentage); the models
+    // take a double and convert straight back
+    private static double hundredths(String text, String what) {
+        long hundredths;
+        try {
+            hundredths = Money.parse(text);
+        } catch (NumberFormatException e) {
+            hundredths = -1;
+        }
+        if (hundredths < 0) throw new IllegalArgumentException("bad " + what + " '" + text + "'");
+        return Money.dollars(hundredths);
+    }
+
+    // Comma-separated ids, possibly none
+    private static List<String> ids(String text) {
+        if (text.trim().isEmpty()) return new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        for (String id : text.split(",")) {
+            ids.add(id(id));
+        }
+        return ids;
+    }
+
+    // Free text must not break the one-line, pipe-delimited format
+    private static String clean(String text) {
+        if (text == null) return "";
+        return text.replace('|', '/').replace('\n', ' ').replace('\r', ' ');
+    }
+}
@@ -0,0 +1,36 @@
+package com.tmse.pizza.storage;
+
+import com.tmse.pizza.models.Order;
+
+// One change published on the order feed. RELOADED means the whole order set was reloaded
+// (e.g. another terminal rewrote the file) and listeners should fetch it again.
+public class OrderChange {
+    public enum Type { SAVED, REMOVED, RELOADED }
+
+    private final Type type;
+    private final String orderId;
+    private final Order order;
+
+    private OrderChange(Type type, String orderId, Order order) {
+        this.type = type;
+        this.orderId = orderId;
+        this.order = order;
+    }
+
+    static OrderChange saved(Order order) {
+        return new OrderChange(Type.SAVED, order.getOrderId(), order);
+    }
+
+    static OrderChange removed(String orderId) {
+        return new OrderChange(Type.REMOVED, orderId, null);
+    }
+
+    static OrderChange reloaded() {
+        return new OrderChange(Type.RELOADED, null, null);
+    }
+
+    public Type getType() { return type; }
+    public String getOrderId() { return orderId; }
+    // The order as saved; every call returns a fresh copy the caller may keep and modify
+    public Order getOrder() { return order != null ? order.copy() : null; }
+}
@@ -0,0 +1,48 @@
+package com.tmse.pizza.storage;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// In-process publish/subscribe of order changes. The order repository publishes after every
+// mutation, whether it came from this process or was read from another terminal's appends.
+// Listeners are called on the storage thread that made the change and must hand UI work to the
+// FX thread themselves.
+public class OrderFeed {
+    public interface Listener {
+        void onOrderChange(OrderChange change);
+    }
+
+    public static final class Subscription {
+        private final OrderFeed feed;
+        private final Listener listener;
+
+        private Subscription(OrderFeed feed, Listener listener) {
+            this.feed = feed;
+            this.listener = listener;
+        }
+
+        public void cancel() {
+            feed.listeners.remove(listener);
+        }
+    }
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    OrderFeed() {
+    }
+
+    Subscription subscribe(Listener listener) {
+        listeners.add(listener);
+        return new Subscription(this, listener);
+    }
+
+    void publish(OrderChange change) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onOrderChange(change);
+            } catch (RuntimeException e) {
+                System.err.println("Order feed listener failed: " + e.getMessage());
+            }
+        }
+    }
+}
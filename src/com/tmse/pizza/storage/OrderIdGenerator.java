@@ -0,0 +1,83 @@
+package com.tmse.pizza.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Snowflake-style order ids: 41 bits of milliseconds since EPOCH, 10 bits of node id and a 12-bit
+// sequence, so ids are unique across every process sharing the data directory and sort numerically
+// by creation time. Each process claims a node id by holding a lock on one of data/nodes/node-N.lock.
+// Generation is lock-free: the last timestamp and sequence live together in one AtomicLong updated by CAS.
+public final class OrderIdGenerator {
+    private static final long EPOCH = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int MAX_NODES = 1 << NODE_BITS;
+    private static final String NODES_DIR = FileStorage.DATA_DIR + "/nodes";
+
+    // Keeps the node lock alive for as long as the process runs
+    private static FileChannel nodeChannel;
+    private static final int nodeId = claimNodeId();
+    // (millis since EPOCH << SEQUENCE_BITS) | sequence of the last id handed out
+    private static final AtomicLong last = new AtomicLong();
+
+    private OrderIdGenerator() {
+    }
+
+    public static String nextOrderId() {
+        return "ORD-" + nextId();
+    }
+
+    public static long nextId() {
+        while (true) {
+            long previous = last.get();
+            long now = System.currentTimeMillis() - EPOCH;
+            // A new millisecond restarts the sequence; otherwise count up. Running out of sequence
+            // numbers simply borrows the next millisecond, and a clock that steps back is ignored,
+            // so ids never repeat and never go backwards.
+            long next = now > (previous >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : previous + 1;
+            if (last.compareAndSet(previous, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+                return (millis << (NODE_BITS + SEQUENCE_BITS)) | ((long) nodeId << SEQUENCE_BITS) | sequence;
+            }
+        }
+    }
+
+    // Takes the first node-N.lock no other process holds. The OS releases it if the process dies.
+    private static int claimNodeId() {
+        File dir = new File(NODES_DIR);
+        dir.mkdirs();
+        for (int node = 0; node < MAX_NODES; node++) {
+            FileChannel channel = null;
+            try {
+                channel = FileChannel.open(new File(dir, "node-" + node + ".lock").toPath(),
+                                           StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock lock = channel.tryLock();
+                if (lock != null) {
+                    nodeChannel = channel;
+                    return node;
+                }
+                channel.close();
+            } catch (IOException | OverlappingFileLockException e) {
+                closeQuietly(channel);
+            }
+        }
+        int node = ThreadLocalRandom.current().nextInt(MAX_NODES);
+        System.err.println("No free order id node lock in " + NODES_DIR + ", using random node " + node);
+        return node;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
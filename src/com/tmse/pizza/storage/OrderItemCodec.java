@@ -0,0 +1,140 @@
+package com.tmse.pizza.storage;
+
+import com.tmse.pizza.models.*;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Compact encoding of an order's line items, stored as one field of the order record.
+// Items are separated by ';' and each item is
+//   type,name,pizzaSize,crust,beverageSize,quantity,unitPrice,toppings,cheese,sauce
+// where strings are SymbolTable codes, enums are ordinals (empty when unset), the unit price
+// is dollars to the cent ("12.49") and toppings are symbol codes joined by '.'. Decoding is a single pass over the characters.
+class OrderItemCodec {
+    private static final char ITEM_SEPARATOR = ';';
+    private static final char FIELD_SEPARATOR = ',';
+    private static final char TOPPING_SEPARATOR = '.';
+
+    private static final PizzaSize[] PIZZA_SIZES = PizzaSize.values();
+    private static final CrustType[] CRUST_TYPES = CrustType.values();
+    private static final BeverageSize[] BEVERAGE_SIZES = BeverageSize.values();
+
+    private final SymbolTable symbols;
+
+    OrderItemCodec(SymbolTable symbols) {
+        this.symbols = symbols;
+    }
+
+    String encode(List<OrderItem> items) throws IOException {
+        if (items == null || items.isEmpty()) return "";
+        StringBuilder sb = new StringBuilder(items.size() * 24);
+        for (OrderItem item : items) {
+            if (sb.length() > 0) sb.append(ITEM_SEPARATOR);
+            appendSymbol(sb, item.getType()).append(FIELD_SEPARATOR);
+            appendSymbol(sb, item.getName()).append(FIELD_SEPARATOR);
+            appendOrdinal(sb, item.getPizzaSize()).append(FIELD_SEPARATOR);
+            appendOrdinal(sb, item.getCrustType()).append(FIELD_SEPARATOR);
+            appendOrdinal(sb, item.getBeverageSize()).append(FIELD_SEPARATOR);
+            sb.append(item.getQuantity()).append(FIELD_SEPARATOR);
+            Money.append(sb, item.getUnitPriceCents()).append(FIELD_SEPARATOR);
+            if (item.getToppings() != null) {
+                boolean first = true;
+                for (String topping : item.getToppings()) {
+                    if (!first) sb.append(TOPPING_SEPARATOR);
+                    sb.append(symbols.intern(topping));
+                    first = false;
+                }
+            }
+            sb.append(FIELD_SEPARATOR);
+            appendSymbol(sb, item.getCheeseType()).append(FIELD_SEPARATOR);
+            appendSymbol(sb, item.getSauceType());
+        }
+        return sb.toString();
+    }
+
+    List<OrderItem> decode(char[] field, int start, int end) throws IOException {
+        List<OrderItem> items = new ArrayList<>();
+        int length = end;
+        int pos = start;
+        while (pos < length) {
+            // Per-item state, filled in field by field as the cursor advances
+            int[] ints = new int[6]; // type, name, size, crust, beverageSize, quantity
+            int fieldIndex = 0;
+            long unitPriceCents = 0;
+            List<String> toppings = new ArrayList<>();
+            String cheese = null;
+            String sauce = null;
+
+            while (pos < length && field[pos] != ITEM_SEPARATOR) {
+                if (fieldIndex < 6) {
+                    int value = -1;
+                    while (pos < length && isDigit(field[pos])) {
+                        value = (value < 0 ? 0 : value * 10) + (field[pos++] - '0');
+                    }
+                    ints[fieldIndex] = value;
+                } else if (fieldIndex == 6) {
+                    int priceStart = pos;
+                    while (pos < length && field[pos] != FIELD_SEPARATOR && field[pos] != ITEM_SEPARATOR) pos++;
+                    if (pos > priceStart) unitPriceCents = Money.parse(field, priceStart, pos);
+                } else if (fieldIndex == 7) {
+                    int value = -1;
+                    while (pos < length && field[pos] != FIELD_SEPARATOR && field[pos] != ITEM_SEPARATOR) {
+                        char c = field[pos++];
+                        if (c == TOPPING_SEPARATOR) {
+                            addSymbol(toppings, value);
+                            value = -1;
+                        } else {
+                            value = (value < 0 ? 0 : value * 10) + (c - '0');
+                        }
+                    }
+                    addSymbol(toppings, value);
+                } else {
+                    int value = -1;
+                    while (pos < length && isDigit(field[pos])) {
+                        value = (value < 0 ? 0 : value * 10) + (field[pos++] - '0');
+                    }
+                    if (fieldIndex == 8) cheese = symbol(value);
+                    else if (fieldIndex == 9) sauce = symbol(value);
+                }
+                // Skip to the next field of this item
+                while (pos < length && field[pos] != FIELD_SEPARATOR && field[pos] != ITEM_SEPARATOR) pos++;
+                if (pos < length && field[pos] == FIELD_SEPARATOR) pos++;
+                fieldIndex++;
+            }
+            pos++; // past ';'
+
+            OrderItem item = new OrderItem(symbol(ints[0]), symbol(ints[1]), unitPriceCents, Math.max(ints[5], 1));
+            if (ints[2] >= 0 && ints[2] < PIZZA_SIZES.length) item.setPizzaSize(PIZZA_SIZES[ints[2]]);
+            if (ints[3] >= 0 && ints[3] < CRUST_TYPES.length) item.setCrustType(CRUST_TYPES[ints[3]]);
+            if (ints[4] >= 0 && ints[4] < BEVERAGE_SIZES.length) item.setBeverageSize(BEVERAGE_SIZES[ints[4]]);
+            if (!toppings.isEmpty()) item.setToppings(toppings);
+            item.setCheeseType(cheese);
+            item.setSauceType(sauce);
+            items.add(item);
+        }
+        return items;
+    }
+
+    private StringBuilder appendSymbol(StringBuilder sb, String value) throws IOException {
+        if (value != null) sb.append(symbols.intern(value));
+        return sb;
+    }
+
+    private static StringBuilder appendOrdinal(StringBuilder sb, Enum<?> value) {
+        if (value != null) sb.append(value.ordinal());
+        return sb;
+    }
+
+    private void addSymbol(List<String> target, int code) throws IOException {
+        String value = symbol(code);
+        if (value != null) target.add(value);
+    }
+
+    private String symbol(int code) throws IOException {
+        return code >= 0 ? symbols.lookup(code) : null;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
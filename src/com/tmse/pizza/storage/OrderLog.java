@@ -0,0 +1,379 @@
+package com.tmse.pizza.storage;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Append-only order log with an in-memory offset index keyed by orderId.
+// Every save or update appends one record; the newest record for an order wins.
+// Superseded records are dropped by a background compaction once they outnumber the live ones.
+// Appends are fsynced before they return; whole-file rewrites go through AtomicFile.
+//
+// Several processes may share the file. Writers hold lock() (a FileChannel lock on a sidecar file)
+// while they catch up, check and append. Readers never lock: they index records other processes
+// appended since the last look, and rebuild from scratch if the file was replaced by a rewrite.
+// Only newline-terminated records are indexed, so a record still being written is never seen half done;
+// a file that ends in an unterminated line when first loaded gets its newline under lock().
+class OrderLog {
+    private static final int COMPACT_MIN_DEAD_RECORDS = 1000;
+
+    private final File file;
+    private final File lockFile;
+    // orderId -> byte offset of its newest record, kept in first-seen order
+    private final Map<String, Long> offsets = new LinkedHashMap<>();
+    // Orders another process wrote since the last drainChanged()
+    private final Set<String> changed = new LinkedHashSet<>();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "order-log-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+    private FileChannel lockChannel;
+    private volatile FileLock heldLock; // the latest lock() taken in this process
+    private boolean loaded;
+    private Object loadedKey;
+    private int generation;
+    private long indexedLength;
+    private int deadRecords;
+    private boolean compactionScheduled;
+
+    OrderLog(String path, String lockPath) {
+        this.file = new File(path);
+        this.lockFile = new File(lockPath);
+    }
+
+    // Blocks until no other process is writing the log. Callers must also hold this object's monitor,
+    // since a JVM can only hold one lock on a file at a time. Callers take it in try-with-resources just
+    // to release it, so those methods suppress javac's "never referenced" [try] warning.
+    FileLock lock() throws IOException {
+        synchronized (this) {
+            if (lockChannel == null) {
+                lockChannel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            }
+        }
+        FileLock lock = lockChannel.lock();
+        heldLock = lock;
+        return lock;
+    }
+
+    // Whether this thread is inside a lock() block: lock() is only taken while holding this object's monitor
+    boolean isLockedByCurrentThread() {
+        FileLock lock = heldLock;
+        return Thread.holdsLock(this) && lock != null && lock.isValid();
+    }
+
+    // Changes whenever the index had to be rebuilt from scratch, e.g. because the file was replaced
+    synchronized int generation() throws IOException {
+        ensureLoaded();
+        return generation;
+    }
+
+    synchronized boolean contains(String orderId) throws IOException {
+        ensureLoaded();
+        return offsets.containsKey(orderId);
+    }
+
+    // Maps the newest record of every order other processes appended since the last call
+    synchronized <T> List<T> drainChanged(RecordMapper<T> mapper) throws IOException {
+        ensureLoaded();
+        List<String> orderIds = new ArrayList<>(changed);
+        changed.clear();
+        List<T> results = new ArrayList<>(orderIds.size());
+        OrderRecordScanner scanner = new OrderRecordScanner();
+        for (String orderId : orderIds) {
+            String record = read(orderId);
+            if (record != null) {
+                scanner.reset(record);
+                results.add(mapper.map(scanner));
+            }
+        }
+        return results;
+    }
+
+    // Group commit: every record in the batch is written with one write and made durable with one fsync.
+    // The caller holds lock().
+    synchronized void appendAll(Map<String, String> records) throws IOException {
+        ensureLoaded();
+        if (records.isEmpty()) return;
+        if (file.length() > indexedLength) {
+            // A writer died mid-record and was never told it succeeded; drop its fragment
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(indexedLength);
+            }
+        }
+        ByteArrayOutputStream batch = new ByteArrayOutputStream(records.size() * 256);
+        long[] relative = new long[records.size()];
+        int n = 0;
+        for (String record : records.values()) {
+            relative[n++] = batch.size();
+            batch.write((record + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        long base;
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            base = out.getChannel().size();
+            batch.writeTo(out);
+            out.getChannel().force(false);
+        }
+        if (loadedKey == null) loadedKey = fileKey();
+        indexedLength = base + batch.size();
+        n = 0;
+        for (String orderId : records.keySet()) {
+            if (offsets.put(orderId, base + relative[n++]) != null) {
+                deadRecords++;
+            }
+        }
+        maybeScheduleCompaction();
+    }
+
+    // Drops every record of the given orders in a single linear rewrite; returns the ids that were present.
+    // The caller holds lock().
+    synchronized List<String> removeAll(Set<String> orderIds) throws IOException {
+        ensureLoaded();
+        List<String> removed = new ArrayList<>();
+        for (String orderId : orderIds) {
+            if (offsets.containsKey(orderId)) removed.add(orderId);
+        }
+        if (removed.isEmpty()) return removed;
+
+        List<String> kept = new ArrayList<>(offsets.size());
+        for (String record : readAll()) {
+            if (!orderIds.contains(idOf(record))) kept.add(record);
+        }
+        rewrite(kept);
+        return removed;
+    }
+
+    // Returns the newest record of every order, in the order the orders were first written
+    synchronized List<String> readAll() throws IOException {
+        return mapLive(record -> new String(record.buffer(), 0, record.end(record.fieldCount() - 1)));
+    }
+
+    // Maps the newest record of every order, returning results in the order the orders were first written.
+    // The file is streamed once; superseded records are skipped by offset alone and never decoded.
+    synchronized <T> List<T> mapLive(RecordMapper<T> mapper) throws IOException {
+        ensureLoaded();
+        long[] live = new long[offsets.size()];
+        int n = 0;
+        for (long offset : offsets.values()) {
+            live[n++] = offset;
+        }
+        Arrays.sort(live);
+        Map<Long, T> mapped = new HashMap<>(live.length * 2);
+        int[] next = {0};
+        forEachRecord(0, indexedLength, (offset, record) -> {
+            while (next[0] < live.length && live[next[0]] < offset) next[0]++;
+            if (next[0] < live.length && live[next[0]] == offset) {
+                mapped.put(offset, mapper.map(record));
+            }
+        });
+        List<T> results = new ArrayList<>(mapped.size());
+        for (Long offset : offsets.values()) {
+            T value = mapped.get(offset);
+            if (value != null) results.add(value);
+        }
+        return results;
+    }
+
+    synchronized String read(String orderId) throws IOException {
+        ensureLoaded();
+        Long offset = offsets.get(orderId);
+        if (offset == null) return null;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(offset);
+            ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+            int b;
+            while ((b = raf.read()) != -1 && b != '\n') {
+                line.write(b);
+            }
+            return stripCarriageReturn(line.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @SuppressWarnings("try")
+    synchronized void compact() throws IOException {
+        try (FileLock lock = lock()) {
+            ensureLoaded();
+            compactionScheduled = false;
+            if (deadRecords == 0) return;
+
+            rewrite(readAll());
+        }
+    }
+
+    // Replaces the file with exactly these records, one per order, and re-indexes them
+    private void rewrite(Collection<String> records) throws IOException {
+        Map<String, Long> newOffsets = new LinkedHashMap<>();
+        long[] position = {0};
+        AtomicFile.write(file, out -> {
+            for (String record : records) {
+                byte[] bytes = (record + "\n").getBytes(StandardCharsets.UTF_8);
+                newOffsets.put(idOf(record), position[0]);
+                out.write(bytes);
+                position[0] += bytes.length;
+            }
+        });
+
+        offsets.clear();
+        offsets.putAll(newOffsets);
+        loadedKey = fileKey();
+        indexedLength = position[0];
+        deadRecords = 0;
+    }
+
+    private void maybeScheduleCompaction() {
+        if (compactionScheduled) return;
+        if (deadRecords >= COMPACT_MIN_DEAD_RECORDS && deadRecords > offsets.size()) {
+            compactionScheduled = true;
+            compactor.submit(() -> {
+                try {
+                    compact();
+                } catch (IOException e) {
+                    System.err.println("Order log compaction failed: " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    // Builds the index on first use, indexes records appended by other processes since the last call,
+    // and rebuilds from scratch if the file was replaced or truncated underneath us
+    private void ensureLoaded() throws IOException {
+        Object key = fileKey();
+        long length = file.length();
+        if (loaded && Objects.equals(key, loadedKey) && length >= indexedLength) {
+            if (length > indexedLength) {
+                indexedLength = indexFrom(indexedLength, length, true);
+            }
+            return;
+        }
+        offsets.clear();
+        changed.clear();
+        deadRecords = 0;
+        indexedLength = indexFrom(0, length, false);
+        if (indexedLength < length) {
+            indexedLength = terminateLastRecord(indexedLength);
+        }
+        loadedKey = key;
+        loaded = true;
+        generation++;
+    }
+
+    // Indexes the complete records in [from, to) and returns the offset just past the last one.
+    // Records found while catching up are remembered so the repository can pick them up.
+    private long indexFrom(long from, long to, boolean tail) throws IOException {
+        return forEachRecord(from, to, (offset, record) -> {
+            String orderId = record.field(0);
+            if (offsets.put(orderId, offset) != null) {
+                deadRecords++;
+            }
+            if (tail) changed.add(orderId);
+        });
+    }
+
+    // Files written before this log, or edited by hand, may end without a newline. Left alone, that
+    // last order would be invisible to reads and truncated by the next append as a dead fragment.
+    // Under lock() no writer is mid-record, so the unterminated line is finished: end it and index it.
+    private long terminateLastRecord(long from) throws IOException {
+        FileLock lock = isLockedByCurrentThread() ? null : lock();
+        try {
+            long length = file.length();
+            // Another process may have finished its record while we waited for the lock
+            long end = indexFrom(from, length, false);
+            if (end < length) {
+                try (FileOutputStream out = new FileOutputStream(file, true)) {
+                    out.write('\n');
+                    out.getChannel().force(false);
+                }
+                end = indexFrom(end, length + 1, false);
+            }
+            return end;
+        } finally {
+            if (lock != null) lock.release();
+        }
+    }
+
+    // Identity of the file on disk (its inode where the platform has one), so a rename over it is noticed
+    private Object fileKey() throws IOException {
+        try {
+            return Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    interface RecordMapper<T> {
+        T map(OrderRecordScanner record) throws IOException;
+    }
+
+    private interface RecordVisitor {
+        void visit(long offset, OrderRecordScanner record) throws IOException;
+    }
+
+    // Streams the newline-terminated records in [from, to) through one reusable byte buffer and one
+    // reusable scanner, and returns the offset just past the last complete record
+    private long forEachRecord(long from, long to, RecordVisitor visitor) throws IOException {
+        if (!file.exists() || to <= from) return from;
+        OrderRecordScanner scanner = new OrderRecordScanner();
+        long lineStart = from;
+        try (FileInputStream fileIn = new FileInputStream(file)) {
+            fileIn.getChannel().position(from);
+            InputStream in = new BufferedInputStream(fileIn, 64 * 1024);
+            byte[] line = new byte[512];
+            int lineLength = 0;
+            boolean ascii = true;
+            long position = from;
+            int b;
+            while (position < to && (b = in.read()) != -1) {
+                position++;
+                if (b == '\n') {
+                    emit(visitor, scanner, lineStart, line, lineLength, ascii);
+                    lineLength = 0;
+                    ascii = true;
+                    lineStart = position;
+                } else {
+                    if (lineLength == line.length) line = Arrays.copyOf(line, line.length * 2);
+                    line[lineLength++] = (byte) b;
+                    if (b >= 0x80) ascii = false;
+                }
+            }
+        }
+        return lineStart;
+    }
+
+    private static void emit(RecordVisitor visitor, OrderRecordScanner scanner, long offset,
+                             byte[] line, int length, boolean ascii) throws IOException {
+        if (length > 0 && line[length - 1] == '\r') length--;
+        if (ascii) {
+            scanner.resetAscii(line, length);
+        } else {
+            scanner.reset(new String(line, 0, length, StandardCharsets.UTF_8));
+        }
+        if (scanner.fieldCount() < 2 || scanner.isBlank(0)) return;
+        visitor.visit(offset, scanner);
+    }
+
+    private static String stripCarriageReturn(String line) {
+        return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+    }
+
+    static String idOf(String record) {
+        int bar = record.indexOf('|');
+        return bar < 0 ? record : record.substring(0, bar);
+    }
+}
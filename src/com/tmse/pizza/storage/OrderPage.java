@@ -0,0 +1,19 @@
+package com.tmse.pizza.storage;
+
+import com.tmse.pizza.models.Order;
+import java.util.List;
+
+// One page of orders, newest first, and the cursor to pass back for the page after it
+public class OrderPage {
+    private final List<Order> orders;
+    private final String nextCursor;
+
+    OrderPage(List<Order> orders, String nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Order> getOrders() { return orders; }
+    // null once there is nothing older to fetch
+    public String getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,66 @@
+package com.tmse.pizza.storage;
+
+import com.tmse.pizza.models.Order;
+import com.tmse.pizza.models.OrderStatus;
+import java.time.LocalDate;
+
+// Which orders to show: any combination of a status, an order type and a range of days placed.
+// Unset parts match everything. Immutable; each with... method returns a narrowed copy.
+public final class OrderQuery {
+    private static final OrderQuery ALL = new OrderQuery(null, null, null, null);
+
+    private final OrderStatus status;
+    private final String orderType;
+    private final LocalDate from;
+    private final LocalDate to;
+
+    private OrderQuery(OrderStatus status, String orderType, LocalDate from, LocalDate to) {
+        this.status = status;
+        this.orderType = orderType;
+        this.from = from;
+        this.to = to;
+    }
+
+    public static OrderQuery all() {
+        return ALL;
+    }
+
+    // null clears the status filter
+    public OrderQuery withStatus(OrderStatus status) {
+        return new OrderQuery(status, orderType, from, to);
+    }
+
+    // "delivery" or "pickup"; null clears the type filter
+    public OrderQuery withType(String orderType) {
+        String type = orderType != null && !orderType.trim().isEmpty() ? orderType.trim().toLowerCase() : null;
+        return new OrderQuery(status, type, from, to);
+    }
+
+    // Both days are inclusive; either may be null for an open end
+    public OrderQuery placedBetween(LocalDate from, LocalDate to) {
+        return new OrderQuery(status, orderType, from, to);
+    }
+
+    public OrderStatus getStatus() { return status; }
+    public String getOrderType() { return orderType; }
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+
+    boolean hasDateRange() {
+        return from != null || to != null;
+    }
+
+    public boolean matches(Order order) {
+        if (status != null && order.getOrderStatus() != status) return false;
+        if (orderType != null && (order.getOrderType() == null || !orderType.equalsIgnoreCase(order.getOrderType().trim()))) {
+            return false;
+        }
+        if (hasDateRange()) {
+            long day = OrderRepository.dayOf(order);
+            if (day == OrderRepository.UNDATED) return false;
+            if (from != null && day < from.toEpochDay()) return false;
+            if (to != null && day > to.toEpochDay()) return false;
+        }
+        return true;
+    }
+}
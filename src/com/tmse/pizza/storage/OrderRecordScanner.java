@@ -0,0 +1,158 @@
+package com.tmse.pizza.storage;
+
+import com.tmse.pizza.models.Money;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Allocation-light scanner for one pipe-delimited order record.
+// The line is copied into a reusable char buffer and the field boundaries are recorded
+// in one pass; callers then pull out only the fields a query needs. Numbers and dates are
+// parsed straight from the buffer, and a String is only created when field() is called.
+class OrderRecordScanner {
+    private static final int MAX_FIELDS = 32;
+
+    private char[] buffer = new char[512];
+    private int length;
+    private final int[] starts = new int[MAX_FIELDS];
+    private final int[] ends = new int[MAX_FIELDS];
+    private int fieldCount;
+
+    void reset(CharSequence line) {
+        ensureCapacity(line.length());
+        length = line.length();
+        for (int i = 0; i < length; i++) {
+            buffer[i] = line.charAt(i);
+        }
+        split();
+    }
+
+    // Fills the buffer from ASCII bytes without going through a String
+    void resetAscii(byte[] bytes, int len) {
+        ensureCapacity(len);
+        length = len;
+        for (int i = 0; i < len; i++) {
+            buffer[i] = (char) bytes[i];
+        }
+        split();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (buffer.length < capacity) {
+            buffer = new char[Math.max(capacity, buffer.length * 2)];
+        }
+    }
+
+    private void split() {
+        fieldCount = 0;
+        int start = 0;
+        for (int i = 0; i < length && fieldCount < MAX_FIELDS - 1; i++) {
+            if (buffer[i] == '|') {
+                starts[fieldCount] = start;
+                ends[fieldCount] = i;
+                fieldCount++;
+                start = i + 1;
+            }
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = length;
+        fieldCount++;
+    }
+
+    int fieldCount() { return fieldCount; }
+
+    char[] buffer() { return buffer; }
+    int start(int field) { return starts[field]; }
+    int end(int field) { return ends[field]; }
+
+    boolean has(int field) {
+        return field < fieldCount && ends[field] > starts[field];
+    }
+
+    String field(int field) {
+        if (field >= fieldCount) return "";
+        return new String(buffer, starts[field], ends[field] - starts[field]);
+    }
+
+    // Case-insensitive comparison that ignores surrounding whitespace in the field
+    boolean fieldEqualsIgnoreCase(int field, String value) {
+        if (field >= fieldCount) return value.isEmpty();
+        int start = starts[field];
+        int end = ends[field];
+        while (start < end && buffer[start] <= ' ') start++;
+        while (end > start && buffer[end - 1] <= ' ') end--;
+        if (end - start != value.length()) return false;
+        for (int i = 0; i < value.length(); i++) {
+            char a = buffer[start + i];
+            char b = value.charAt(i);
+            if (a != b && Character.toLowerCase(a) != Character.toLowerCase(b)) return false;
+        }
+        return true;
+    }
+
+    boolean isBlank(int field) {
+        if (field >= fieldCount) return true;
+        for (int i = starts[field]; i < ends[field]; i++) {
+            if (buffer[i] > ' ') return false;
+        }
+        return true;
+    }
+
+    // An amount in cents, read straight from the buffer; 0 if the field is missing
+    long parseCents(int field) {
+        return has(field) ? Money.parse(buffer, starts[field], ends[field]) : 0;
+    }
+
+    // Parses an unsigned decimal long; -1 if the field is missing or not a number
+    long parseLong(int field) {
+        if (!has(field)) return -1;
+        long value = 0;
+        for (int i = starts[field]; i < ends[field]; i++) {
+            char c = buffer[i];
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    // Order timestamps are stored as epoch millis; older records carry "yyyy-MM-dd HH:mm:ss" text
+    long parseEpochMillis(int field) {
+        if (!has(field)) return -1;
+        if (ends[field] - starts[field] == 19 && buffer[starts[field] + 4] == '-') {
+            return parseDateTimeMillis(field);
+        }
+        return parseLong(field);
+    }
+
+    // Parses "yyyy-MM-dd HH:mm:ss" in the system time zone; -1 if the field is missing or malformed
+    long parseDateTimeMillis(int field) {
+        if (!has(field)) return -1;
+        int s = starts[field];
+        if (ends[field] - s != 19) return -1;
+        int year = digits(s, 4);
+        int month = digits(s + 5, 2);
+        int day = digits(s + 8, 2);
+        int hour = digits(s + 11, 2);
+        int minute = digits(s + 14, 2);
+        int second = digits(s + 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31 || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return -1;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second)
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (java.time.DateTimeException e) {
+            return -1;
+        }
+    }
+
+    private int digits(int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = buffer[i];
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
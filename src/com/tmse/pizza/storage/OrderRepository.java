@@ -0,0 +1,361 @@
+package com.tmse.pizza.storage;
+
+import com.tmse.pizza.models.Order;
+import com.tmse.pizza.models.OrderStatus;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Warm, thread-safe view of every order, loaded once from the order log.
+// Keeps hash indexes on customer and assigned driver, and time-ordered indexes on status and order
+// type, so dashboard queries cost O(result) instead of a scan of the whole order file. Order
+// history is served a page at a time, newest first, from the most selective time-ordered index.
+// Orders are copied on the way in and out so callers can mutate what they get back.
+// Orders placed on no known day sit under UNDATED.
+// Per-status counts fall out of the status index; sales are rolled up per day as orders change.
+// Every mutation is published on the order feed once the write lock is released.
+class OrderRepository {
+    static final long UNDATED = Long.MIN_VALUE;
+
+    private final Map<String, Order> byId = new HashMap<>();
+    private final Map<String, Long> sequence = new HashMap<>();
+    private final Map<String, Set<String>> byCustomer = new HashMap<>();
+    private final Map<String, Set<String>> byDriver = new HashMap<>();
+    // Status and type indexes hold the same time keys as byTime, so a page can be read from either
+    private final Map<OrderStatus, NavigableSet<TimeKey>> byStatus = new EnumMap<>(OrderStatus.class);
+    private final Map<String, NavigableSet<TimeKey>> byType = new HashMap<>();
+    private final NavigableSet<TimeKey> byTime = new TreeSet<>();
+    // epoch day the order was placed -> that day's sales rollup
+    private final Map<Long, SalesRollup> rollupsByDay = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final OrderFeed feed;
+    private long nextSequence;
+
+    // Position in the time index: newest first, ties broken by order id. Written out as a page
+    // cursor, it stays meaningful after a reload, unlike the in-memory sequence numbers.
+    private static final class TimeKey implements Comparable<TimeKey> {
+        final long time;
+        final String orderId;
+
+        TimeKey(long time, String orderId) {
+            this.time = time;
+            this.orderId = orderId;
+        }
+
+        static TimeKey parse(String cursor) {
+            int colon = cursor.indexOf(':');
+            try {
+                return new TimeKey(Long.parseLong(cursor.substring(0, colon)), cursor.substring(colon + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Not an order page cursor: " + cursor);
+            }
+        }
+
+        String toCursor() {
+            return time + ":" + orderId;
+        }
+
+        @Override
+        public int compareTo(TimeKey other) {
+            int byTime = Long.compare(other.time, time);
+            return byTime != 0 ? byTime : orderId.compareTo(other.orderId);
+        }
+    }
+
+    OrderRepository(OrderFeed feed) {
+        this.feed = feed;
+    }
+
+    void load(List<Order> orders) {
+        lock.writeLock().lock();
+        try {
+            byId.clear();
+            sequence.clear();
+            byCustomer.clear();
+            byDriver.clear();
+            byStatus.clear();
+            byType.clear();
+            byTime.clear();
+            rollupsByDay.clear();
+            nextSequence = 0;
+            for (Order order : orders) {
+                putLocked(order.copy());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        feed.publish(OrderChange.reloaded());
+    }
+
+    void put(Order order) {
+        Order stored = order.copy();
+        lock.writeLock().lock();
+        try {
+            putLocked(stored);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        feed.publish(OrderChange.saved(stored.copy()));
+    }
+
+    void removeAll(Collection<String> orderIds) {
+        List<String> removed = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            for (String orderId : orderIds) {
+                Order previous = byId.remove(orderId);
+                if (previous != null) {
+                    unindexLocked(previous);
+                    sequence.remove(orderId);
+                    removed.add(orderId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        for (String orderId : removed) {
+            feed.publish(OrderChange.removed(orderId));
+        }
+    }
+
+    Order get(String orderId) {
+        lock.readLock().lock();
+        try {
+            Order order = byId.get(orderId);
+            return order != null ? order.copy() : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Version of the stored order, or -1 if there is none
+    long versionOf(String orderId) {
+        lock.readLock().lock();
+        try {
+            Order order = byId.get(orderId);
+            return order != null ? order.getVersion() : -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    boolean contains(String orderId) {
+        lock.readLock().lock();
+        try {
+            return byId.containsKey(orderId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Order> findAll() {
+        lock.readLock().lock();
+        try {
+            return copiesOf(byId.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Order> findByCustomer(String customerId) {
+        return find(byCustomer, customerId);
+    }
+
+    List<Order> findByDriver(String driverId) {
+        return find(byDriver, driverId);
+    }
+
+    // Ready delivery orders with no driver yet, answered from the smaller of the two index sets
+    List<Order> findAvailableDeliveries() {
+        lock.readLock().lock();
+        try {
+            Set<TimeKey> ready = byStatus.getOrDefault(OrderStatus.READY, Collections.emptyNavigableSet());
+            Set<TimeKey> delivery = byType.getOrDefault("delivery", Collections.emptyNavigableSet());
+            Set<TimeKey> smaller = ready.size() <= delivery.size() ? ready : delivery;
+            Set<TimeKey> larger = smaller == ready ? delivery : ready;
+            List<String> matches = new ArrayList<>();
+            for (TimeKey key : smaller) {
+                if (larger.contains(key) && isBlank(byId.get(key.orderId).getAssignedDriverId())) {
+                    matches.add(key.orderId);
+                }
+            }
+            return copiesOf(matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int countByStatus(OrderStatus status) {
+        lock.readLock().lock();
+        try {
+            Set<TimeKey> keys = byStatus.get(status);
+            return keys != null ? keys.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    SalesRollup rollupFor(LocalDate day) {
+        lock.readLock().lock();
+        try {
+            SalesRollup rollup = rollupsByDay.get(day.toEpochDay());
+            return rollup != null ? rollup.copy() : new SalesRollup();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Merges the per-day rollups; proportional to the number of trading days, not orders
+    SalesRollup rollupAllTime() {
+        lock.readLock().lock();
+        try {
+            SalesRollup total = new SalesRollup();
+            for (SalesRollup rollup : rollupsByDay.values()) {
+                total.merge(rollup);
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Up to limit matching orders, newest first, starting after the cursor (null for the newest).
+    // Walks the smallest time-ordered index the query narrows to (its status, its type, or every
+    // order) from the cursor or the end of the query's date range, so a page costs the orders that
+    // index holds between there and the page's last match, however long the history is.
+    OrderPage findPage(OrderQuery query, String cursor, int limit) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<TimeKey> source = byTime;
+            if (query.getStatus() != null) {
+                source = byStatus.getOrDefault(query.getStatus(), Collections.emptyNavigableSet());
+            }
+            if (query.getOrderType() != null) {
+                NavigableSet<TimeKey> ofType = byType.getOrDefault(query.getOrderType(), Collections.emptyNavigableSet());
+                if (ofType.size() < source.size()) source = ofType;
+            }
+
+            TimeKey after = cursor != null ? TimeKey.parse(cursor) : null;
+            TimeKey top = query.getTo() != null ? new TimeKey(startOfDay(query.getTo().plusDays(1)) - 1, "") : null;
+            NavigableSet<TimeKey> tail;
+            if (after != null && (top == null || after.compareTo(top) >= 0)) {
+                tail = source.tailSet(after, false);
+            } else {
+                tail = top != null ? source.tailSet(top, true) : source;
+            }
+            long floor = query.getFrom() != null ? startOfDay(query.getFrom()) : Long.MIN_VALUE;
+
+            List<Order> orders = new ArrayList<>(Math.min(limit, 256));
+            for (TimeKey key : tail) {
+                if (key.time < floor) break;
+                Order order = byId.get(key.orderId);
+                if (query.matches(order)) {
+                    orders.add(order.copy());
+                    if (orders.size() == limit) {
+                        return new OrderPage(orders, key.toCursor());
+                    }
+                }
+            }
+            return new OrderPage(orders, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Order> find(Map<String, Set<String>> index, String key) {
+        lock.readLock().lock();
+        try {
+            return copiesOf(index.getOrDefault(key, Collections.emptySet()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Results come back in the order the orders were first written, like the order file
+    private List<Order> copiesOf(Collection<String> orderIds) {
+        List<String> ids = new ArrayList<>(orderIds);
+        ids.sort(Comparator.comparingLong(sequence::get));
+        List<Order> orders = new ArrayList<>(ids.size());
+        for (String orderId : ids) {
+            orders.add(byId.get(orderId).copy());
+        }
+        return orders;
+    }
+
+    private void putLocked(Order order) {
+        String orderId = order.getOrderId();
+        Order previous = byId.put(orderId, order);
+        if (previous != null) {
+            unindexLocked(previous);
+        } else {
+            sequence.put(orderId, nextSequence++);
+        }
+        index(byCustomer, order.getCustomerID(), orderId);
+        index(byDriver, order.getAssignedDriverId(), orderId);
+        TimeKey position = new TimeKey(order.getOrderTimeMillis(), orderId);
+        byTime.add(position);
+        indexByTime(byStatus, order.getOrderStatus(), position);
+        indexByTime(byType, normalize(order.getOrderType()), position);
+        addToRollup(order, 1);
+    }
+
+    private void unindexLocked(Order previous) {
+        String orderId = previous.getOrderId();
+        unindex(byCustomer, previous.getCustomerID(), orderId);
+        unindex(byDriver, previous.getAssignedDriverId(), orderId);
+        TimeKey position = new TimeKey(previous.getOrderTimeMillis(), orderId);
+        byTime.remove(position);
+        unindex(byStatus, previous.getOrderStatus(), position);
+        unindex(byType, normalize(previous.getOrderType()), position);
+        addToRollup(previous, -1);
+    }
+
+    private void addToRollup(Order order, int sign) {
+        // Undated orders still count towards all-time totals under their own bucket
+        long day = dayOf(order);
+        SalesRollup rollup = rollupsByDay.computeIfAbsent(day, d -> new SalesRollup());
+        rollup.add(order, sign);
+        if (rollup.isEmpty()) {
+            rollupsByDay.remove(day);
+        }
+    }
+
+    // Epoch day in local time, or UNDATED
+    static long dayOf(Order order) {
+        return order.getOrderTimeMillis() < 0 ? UNDATED
+            : Instant.ofEpochMilli(order.getOrderTimeMillis()).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+    }
+
+    private static long startOfDay(LocalDate day) {
+        return day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static void index(Map<String, Set<String>> index, String key, String orderId) {
+        if (isBlank(key)) return;
+        index.computeIfAbsent(key, k -> new HashSet<>()).add(orderId);
+    }
+
+    private static <K> void indexByTime(Map<K, NavigableSet<TimeKey>> index, K key, TimeKey position) {
+        if (isBlank(key)) return;
+        index.computeIfAbsent(key, k -> new TreeSet<>()).add(position);
+    }
+
+    private static <K, V> void unindex(Map<K, ? extends Set<V>> index, K key, V value) {
+        if (isBlank(key)) return;
+        Set<V> values = index.get(key);
+        if (values != null) {
+            values.remove(value);
+            if (values.isEmpty()) index.remove(key);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value != null ? value.trim().toLowerCase() : null;
+    }
+
+    private static boolean isBlank(Object value) {
+        return value == null || value.toString().trim().isEmpty();
+    }
+}
@@ -0,0 +1,93 @@
+package com.tmse.pizza.storage;
+
+import com.tmse.pizza.models.Order;
+import com.tmse.pizza.models.OrderItem;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Sales aggregates for one day (or, merged, for all time), kept current by the order repository
+// as orders are written. Each order is added with sign +1 and, when it changes, its old version
+// is removed with sign -1, so a daily summary report is a lookup rather than a scan. Amounts are
+// whole cents, so adding and removing orders any number of times leaves the sums exact.
+public class SalesRollup {
+    private int orderCount;
+    private int salesOrderCount;
+    private long totalSalesCents;
+    private long totalTaxCents;
+    private long cashPaymentsCents;
+    private int deliveryCount;
+    private int pickupCount;
+    private final Map<String, Integer> itemCounts = new HashMap<>();
+    private final Map<String, Long> refunds = new LinkedHashMap<>();
+
+    void add(Order order, int sign) {
+        boolean cancelled = "cancelled".equalsIgnoreCase(order.getStatus());
+        orderCount += sign;
+        if ("delivery".equals(order.getOrderType())) {
+            deliveryCount += sign;
+        } else if ("pickup".equals(order.getOrderType()) || order.getOrderType() == null) {
+            pickupCount += sign;
+        }
+        for (OrderItem item : order.getItems()) {
+            int count = itemCounts.getOrDefault(item.getName(), 0) + sign * item.getQuantity();
+            if (count == 0) {
+                itemCounts.remove(item.getName());
+            } else {
+                itemCounts.put(item.getName(), count);
+            }
+        }
+
+        if (cancelled) {
+            if (sign > 0) {
+                refunds.put(order.getOrderId(), order.getTotalCents());
+            } else {
+                refunds.remove(order.getOrderId());
+            }
+            return;
+        }
+        salesOrderCount += sign;
+        totalSalesCents += sign * order.getTotalCents();
+        totalTaxCents += sign * order.getTaxCents();
+        if (order.getPaymentMethod() != null && order.getPaymentMethod().toLowerCase().contains("cash")) {
+            cashPaymentsCents += sign * order.getTotalCents();
+        }
+    }
+
+    void merge(SalesRollup other) {
+        orderCount += other.orderCount;
+        salesOrderCount += other.salesOrderCount;
+        totalSalesCents += other.totalSalesCents;
+        totalTaxCents += other.totalTaxCents;
+        cashPaymentsCents += other.cashPaymentsCents;
+        deliveryCount += other.deliveryCount;
+        pickupCount += other.pickupCount;
+        other.itemCounts.forEach((name, count) -> itemCounts.merge(name, count, Integer::sum));
+        refunds.putAll(other.refunds);
+    }
+
+    SalesRollup copy() {
+        SalesRollup copy = new SalesRollup();
+        copy.merge(this);
+        return copy;
+    }
+
+    boolean isEmpty() {
+        return orderCount == 0;
+    }
+
+    // All orders placed, including cancelled ones
+    public int getOrderCount() { return orderCount; }
+    // Orders that count towards sales, i.e. not cancelled
+    public int getSalesOrderCount() { return salesOrderCount; }
+    public long getTotalSalesCents() { return totalSalesCents; }
+    public long getTotalTaxCents() { return totalTaxCents; }
+    public long getCashPaymentsCents() { return cashPaymentsCents; }
+    public long getCardPaymentsCents() { return totalSalesCents - cashPaymentsCents; }
+    public int getDeliveryCount() { return deliveryCount; }
+    public int getPickupCount() { return pickupCount; }
+    public Map<String, Integer> getItemCounts() { return Collections.unmodifiableMap(itemCounts); }
+    // Cancelled orders by orderId, with the total in cents that was voided
+    public Map<String, Long> getRefunds() { return Collections.unmodifiableMap(refunds); }
+}
@@ -0,0 +1,21 @@
+package com.tmse.pizza.storage;
+
+import java.io.IOException;
+
+// Thrown when an order is saved from a copy that another terminal has changed since it was read.
+// The write is rejected rather than silently overwriting the other change.
+public class StaleOrderException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final String orderId;
+
+    public StaleOrderException(String orderId, long expectedVersion, long actualVersion) {
+        super("Order " + orderId + " was changed by another terminal (version " + actualVersion +
+              ", expected " + expectedVersion + "). Refresh and try again.");
+        this.orderId = orderId;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+}
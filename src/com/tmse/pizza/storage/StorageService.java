@@ -0,0 +1,112 @@
+package com.tmse.pizza.storage;
+
+import com.tmse.pizza.models.Order;
+import com.tmse.pizza.models.User;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Asynchronous front for FileStorage: every read and write runs on a background executor
+// and completes a CompletableFuture, so the JavaFX Application Thread never waits on the disk.
+// Failures complete the future exceptionally with the original IOException as the cause.
+public class StorageService {
+    private static final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("storage-io-", 0).factory());
+
+    public interface IOCall<T> {
+        T call() throws IOException;
+    }
+
+    public interface IORunnable {
+        void run() throws IOException;
+    }
+
+    public static <T> CompletableFuture<T> submit(IOCall<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    public static CompletableFuture<Void> run(IORunnable runnable) {
+        return submit(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    public static CompletableFuture<List<Order>> getAllOrders() {
+        return submit(FileStorage::getAllOrders);
+    }
+
+    public static CompletableFuture<OrderPage> findOrdersPage(OrderQuery query, String cursor, int limit) {
+        return submit(() -> FileStorage.findOrdersPage(query, cursor, limit));
+    }
+
+    public static CompletableFuture<DashboardStats> getDashboardStats() {
+        return submit(FileStorage::getDashboardStats);
+    }
+
+    public static CompletableFuture<List<Order>> getOrdersByDriver(String driverId) {
+        return submit(() -> FileStorage.getOrdersByDriver(driverId));
+    }
+
+    public static CompletableFuture<List<Order>> getAvailableDeliveryOrders() {
+        return submit(FileStorage::getAvailableDeliveryOrders);
+    }
+
+    public static CompletableFuture<List<User>> getAllUsers() {
+        return submit(FileStorage::getAllUsers);
+    }
+
+    public static CompletableFuture<User> authenticate(String username, String password) {
+        return submit(() -> FileStorage.authenticate(username, password));
+    }
+
+    public static CompletableFuture<Boolean> registerUser(User user) {
+        return submit(() -> FileStorage.registerUser(user));
+    }
+
+    public static CompletableFuture<Void> initializeDefaultUsers() {
+        return run(FileStorage::initializeDefaultUsers);
+    }
+
+    public static CompletableFuture<List<String>> getDriverNames() {
+        return submit(FileStorage::getDriverNames);
+    }
+
+    public static CompletableFuture<List<FileStorage.TipRecord>> getTipsByDriver(String driverId) {
+        return submit(() -> FileStorage.getTipsByDriver(driverId));
+    }
+
+    public static CompletableFuture<TipSummary> getTipSummary(String driverId) {
+        return submit(() -> FileStorage.getTipSummary(driverId));
+    }
+
+    public static CompletableFuture<Void> saveOrder(Order order) {
+        return run(() -> FileStorage.saveOrder(order));
+    }
+
+    public static CompletableFuture<Void> updateOrder(Order order) {
+        return run(() -> FileStorage.updateOrder(order));
+    }
+
+    public static CompletableFuture<Boolean> claimOrder(String orderId, String driverId) {
+        return submit(() -> FileStorage.claimOrder(orderId, driverId));
+    }
+
+    public static CompletableFuture<Void> saveTip(String orderId, String driverId, long tipCents) {
+        return run(() -> FileStorage.saveTip(orderId, driverId, tipCents));
+    }
+
+    // The cause the UI should report, with the CompletionException wrapper removed
+    public static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
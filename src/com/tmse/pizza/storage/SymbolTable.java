@@ -0,0 +1,85 @@
+package com.tmse.pizza.storage;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Persistent string interning table: each distinct string gets a small int, its line number in the file.
+// Used to store repeated catalog strings (topping ids, item names) in order records as numbers.
+// Codes are never reassigned, so records stay readable after the menu changes.
+//
+// Several terminals share the file. New symbols are only appended under the order log's lock, after
+// reading whatever other terminals appended, so a line number is never handed out twice; appends are
+// fsynced before any record can refer to them. A code this process has not seen yet is read from
+// the file on first lookup.
+class SymbolTable {
+    private final File file;
+    private final OrderLog lockOwner;
+    private final List<String> symbols = new ArrayList<>();
+    private final Map<String, Integer> codes = new HashMap<>();
+    private long readLength;
+
+    SymbolTable(String path, OrderLog lockOwner) {
+        this.file = new File(path);
+        this.lockOwner = lockOwner;
+    }
+
+    // The caller holds the order log's lock(), as everything that writes order records does
+    synchronized int intern(String symbol) throws IOException {
+        if (!lockOwner.isLockedByCurrentThread()) {
+            throw new IllegalStateException("Symbols can only be added under the order log lock");
+        }
+        catchUp();
+        Integer code = codes.get(symbol);
+        if (code != null) return code;
+
+        // Persist the new symbol before anything refers to it
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write((symbol + "\n").getBytes(StandardCharsets.UTF_8));
+            out.getChannel().force(false);
+        }
+        // Reading our own line back assigns its code exactly as every other terminal will
+        catchUp();
+        return codes.get(symbol);
+    }
+
+    synchronized String lookup(int code) throws IOException {
+        if (code < 0) return null;
+        if (code >= symbols.size()) catchUp();
+        return code < symbols.size() ? symbols.get(code) : null;
+    }
+
+    // Reads whatever complete lines were appended since the last call
+    private void catchUp() throws IOException {
+        long length = file.length();
+        if (length < readLength) {
+            // Replaced by hand; start over
+            symbols.clear();
+            codes.clear();
+            readLength = 0;
+        }
+        if (length == readLength) return;
+
+        byte[] tail;
+        try (FileInputStream in = new FileInputStream(file)) {
+            in.getChannel().position(readLength);
+            tail = in.readNBytes((int) (length - readLength));
+        }
+        int end = tail.length;
+        while (end > 0 && tail[end - 1] != '\n') end--;
+        if (end == 0) return;
+        int start = 0;
+        for (int i = 0; i < end; i++) {
+            if (tail[i] != '\n') continue;
+            String line = new String(tail, start, i - start, StandardCharsets.UTF_8);
+            if (line.endsWith("\r")) line = line.substring(0, line.length() - 1);
+            codes.putIfAbsent(line, symbols.size());
+            symbols.add(line);
+            start = i + 1;
+        }
+        readLength += end;
+    }
+}
@@ -0,0 +1,137 @@
+package com.tmse.pizza.storage;
+
+import com.tmse.pizza.models.Money;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Tips keyed by driver, with running totals and per-day and per-week subtotals kept in memory.
+// tips.txt stays the append-only record: it is read once, after which only lines appended since
+// the last look (by this or another terminal) are read, so a refresh never rescans months of tips.
+class TipLedger {
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final File file;
+    private final Map<String, DriverTips> byDriver = new HashMap<>();
+    private long readLength;
+
+    private static class DriverTips {
+        final List<FileStorage.TipRecord> records = new ArrayList<>();
+        // Cents, each in a one-slot array so adding to a day or week does not box a new Long
+        final Map<LocalDate, long[]> byDay = new HashMap<>();
+        // keyed by the Monday that starts the week
+        final Map<LocalDate, long[]> byWeek = new HashMap<>();
+        long lifetimeCents;
+
+        void add(FileStorage.TipRecord tip, LocalDate day) {
+            records.add(tip);
+            lifetimeCents += tip.getAmountCents();
+            if (day != null) {
+                byDay.computeIfAbsent(day, d -> new long[1])[0] += tip.getAmountCents();
+                byWeek.computeIfAbsent(weekOf(day), w -> new long[1])[0] += tip.getAmountCents();
+            }
+        }
+
+        static long centsIn(Map<LocalDate, long[]> sums, LocalDate key) {
+            long[] sum = sums.get(key);
+            return sum != null ? sum[0] : 0;
+        }
+    }
+
+    TipLedger(String path) {
+        this.file = new File(path);
+    }
+
+    synchronized void record(String orderId, String driverId, long amountCents) throws IOException {
+        catchUp();
+        String line = orderId + "|" + driverId + "|" + Money.format(amountCents) + "|" + DATE_TIME_FORMAT.format(LocalDateTime.now()) + "\n";
+        // Durable before the driver is told the tip was saved, like order appends
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer bytes = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+        // Reading our own line back keeps the in-memory view and the file in step
+        catchUp();
+    }
+
+    synchronized List<FileStorage.TipRecord> tipsFor(String driverId) throws IOException {
+        catchUp();
+        DriverTips tips = byDriver.get(driverId);
+        return tips != null ? new ArrayList<>(tips.records) : new ArrayList<>();
+    }
+
+    synchronized TipSummary summaryFor(String driverId, LocalDate today) throws IOException {
+        catchUp();
+        DriverTips tips = byDriver.get(driverId);
+        if (tips == null) return new TipSummary(0, 0, 0);
+        return new TipSummary(tips.lifetimeCents, DriverTips.centsIn(tips.byDay, today),
+                              DriverTips.centsIn(tips.byWeek, weekOf(today)));
+    }
+
+    // Reads whatever complete lines were appended since the last call
+    private void catchUp() throws IOException {
+        long length = file.length();
+        if (length < readLength) {
+            // The file was replaced or truncated by hand; start over
+            byDriver.clear();
+            readLength = 0;
+        }
+        if (length == readLength) return;
+
+        byte[] tail;
+        try (FileInputStream in = new FileInputStream(file)) {
+            in.getChannel().position(readLength);
+            tail = in.readNBytes((int) (length - readLength));
+        }
+        // A line without its newline is still being written; leave it for next time
+        int end = tail.length;
+        while (end > 0 && tail[end - 1] != '\n') end--;
+        if (end == 0) return;
+        for (String line : new String(tail, 0, end, StandardCharsets.UTF_8).split("\n")) {
+            parse(line);
+        }
+        readLength += end;
+    }
+
+    private void parse(String line) {
+        String[] parts = line.trim().split("\\|");
+        if (parts.length < 3) return;
+        long amountCents;
+        try {
+            amountCents = Money.parse(parts[2]);
+        } catch (NumberFormatException e) {
+            return;
+        }
+        String date = parts.length > 3 ? parts[3] : "";
+        FileStorage.TipRecord tip = new FileStorage.TipRecord(parts[0], parts[1], amountCents, date);
+        byDriver.computeIfAbsent(parts[1], d -> new DriverTips()).add(tip, dayOf(date));
+    }
+
+    private static LocalDate dayOf(String date) {
+        if (date.length() < 10) return null;
+        try {
+            return LocalDate.parse(date.substring(0, 10));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static LocalDate weekOf(LocalDate day) {
+        return day.minusDays(day.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue());
+    }
+}
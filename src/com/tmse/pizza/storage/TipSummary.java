@@ -0,0 +1,20 @@
+package com.tmse.pizza.storage;
+
+// A driver's tip totals in cents, read from the running sums the tip ledger keeps in memory
+public class TipSummary {
+    private final long lifetimeCents;
+    private final long todayCents;
+    private final long weekCents;
+
+    TipSummary(long lifetimeCents, long todayCents, long weekCents) {
+        this.lifetimeCents = lifetimeCents;
+        this.todayCents = todayCents;
+        this.weekCents = weekCents;
+    }
+
+    public long getLifetimeCents() { return lifetimeCents; }
+    // The current shift, i.e. tips recorded today
+    public long getTodayCents() { return todayCents; }
+    // Tips recorded since Monday
+    public long getWeekCents() { return weekCents; }
+}
@@ -0,0 +1,134 @@
+package com.tmse.pizza.storage;
+
+import com.tmse.pizza.models.User;
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// users.txt behind an in-memory username index, so looking up an account is a hash lookup
+// instead of a scan of the file. The index is loaded once and reloaded only when the file's
+// modification time or length shows that another terminal changed it.
+// Writes hold a FileChannel lock on a sidecar file so terminals sharing the data directory
+// cannot both register the same username or lose each other's changes.
+class UserStore {
+    private final File file;
+    private final File lockFile;
+    // username -> account, in file order
+    private final Map<String, User> byUsername = new LinkedHashMap<>();
+    private FileChannel lockChannel;
+    private long loadedModified = -1;
+    private long loadedLength = -1;
+
+    UserStore(String path, String lockPath) {
+        this.file = new File(path);
+        this.lockFile = new File(lockPath);
+    }
+
+    synchronized User get(String username) throws IOException {
+        ensureLoaded();
+        return byUsername.get(username);
+    }
+
+    synchronized List<User> all() throws IOException {
+        ensureLoaded();
+        return new ArrayList<>(byUsername.values());
+    }
+
+    @SuppressWarnings("try")
+    synchronized void append(User user) throws IOException {
+        try (FileLock lock = lock()) {
+            ensureLoaded();
+            appendLocked(user);
+        }
+    }
+
+    // Adds the account unless the username is taken, as one atomic step across terminals.
+    // The supplier runs only when the account will really be written (e.g. to hash its password).
+    @SuppressWarnings("try")
+    synchronized boolean registerIfAbsent(String username, Supplier<User> account) throws IOException {
+        if (get(username) != null) return false;
+        try (FileLock lock = lock()) {
+            ensureLoaded();
+            if (byUsername.containsKey(username)) return false;
+            appendLocked(account.get());
+            return true;
+        }
+    }
+
+    private void appendLocked(User user) throws IOException {
+        try (PrintWriter pw = new PrintWriter(new FileWriter(file, true))) {
+            pw.println(format(user));
+        }
+        byUsername.putIfAbsent(user.getUsername(), user);
+        markLoaded();
+    }
+
+    private void replaceAllLocked(List<User> users) throws IOException {
+        AtomicFile.write(file, out -> {
+            PrintWriter pw = new PrintWriter(new OutputStreamWriter(out));
+            for (User user : users) {
+                pw.println(format(user));
+            }
+            pw.flush();
+        });
+        byUsername.clear();
+        for (User user : users) {
+            byUsername.put(user.getUsername(), user);
+        }
+        markLoaded();
+    }
+
+    // Swaps one account's stored password (e.g. a freshly computed hash) and rewrites the file
+    @SuppressWarnings("try")
+    synchronized void updatePassword(String username, String storedPassword) throws IOException {
+        try (FileLock lock = lock()) {
+            ensureLoaded();
+            User user = byUsername.get(username);
+            if (user == null) return;
+            List<User> users = new ArrayList<>(byUsername.values());
+            users.set(users.indexOf(user), new User(username, storedPassword, user.getRole()));
+            replaceAllLocked(users);
+        }
+    }
+
+    // Only one thread per JVM may hold a file lock, which the synchronized callers guarantee
+    private FileLock lock() throws IOException {
+        if (lockChannel == null) {
+            lockChannel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        }
+        return lockChannel.lock();
+    }
+
+    private void ensureLoaded() throws IOException {
+        if (file.lastModified() == loadedModified && file.length() == loadedLength) return;
+        byUsername.clear();
+        if (file.exists()) {
+            try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+                String line;
+                while ((line = br.readLine()) != null) {
+                    String[] parts = line.split("\\|");
+                    // The first entry for a username wins, as it did when the file was scanned
+                    if (parts.length == 3 && !byUsername.containsKey(parts[0])) {
+                        byUsername.put(parts[0], new User(parts[0], parts[1], parts[2]));
+                    }
+                }
+            }
+        }
+        markLoaded();
+    }
+
+    private void markLoaded() {
+        loadedModified = file.lastModified();
+        loadedLength = file.length();
+    }
+
+    private static String format(User user) {
+        return user.getUsername() + "|" + user.getPassword() + "|" + user.getRole();
+    }
+}
@@ -0,0 +1,30 @@
+#!/bin/bash
+
+# Builds the storage layer with the tests under test/ and runs each one in an empty working
+# directory, so they write their own data/ instead of the application's
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+cd "$SCRIPT_DIR"
+
+rm -rf build/test && mkdir -p build/test
+javac -d build/test \
+    src/com/tmse/pizza/models/*.java \
+    src/com/tmse/pizza/storage/*.java \
+    $(find test -name '*Test.java')
+if [ $? -ne 0 ]; then
+    echo "Compilation failed!"
+    exit 1
+fi
+
+CLASSES="$SCRIPT_DIR/build/test"
+for test in $(cd test && find . -name '*Test.java' | sed 's|^\./||; s|\.java$||; s|/|.|g'); do
+    echo "== $test"
+    WORK_DIR="$(mktemp -d)"
+    (cd "$WORK_DIR" && java -cp "$CLASSES" "$test")
+    status=$?
+    rm -rf "$WORK_DIR"
+    if [ $status -ne 0 ]; then
+        echo "FAILED: $test"
+        exit 1
+    fi
+done
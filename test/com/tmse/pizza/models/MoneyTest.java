@@ -0,0 +1,81 @@
+package com.tmse.pizza.models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+// Property checks for Money: formatting then parsing gives back the same cents, and parsing
+// rounds digits past the cent half up exactly as BigDecimal does. Run with ./test.sh.
+public class MoneyTest {
+    private static final int RANDOM_CASES = 200_000;
+
+    public static void main(String[] args) {
+        Random random = new Random(24);
+
+        // Every amount up to +/- $1000, then random amounts across the whole range Money parses quickly
+        for (long cents = -100_000; cents <= 100_000; cents++) {
+            checkRoundTrip(cents);
+        }
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            checkRoundTrip(random.nextLong() / 1000);
+        }
+        long[] edges = {0, 1, -1, 9, -9, 10, -10, 99, -99, 100, -100, Long.MAX_VALUE / 1000, -Long.MAX_VALUE / 1000};
+        for (long cents : edges) {
+            checkRoundTrip(cents);
+        }
+
+        // Half a cent and more rounds away from zero, less than half is dropped
+        check(Money.parse("12.345") == 1235, "12.345");
+        check(Money.parse("12.344999") == 1234, "12.344999");
+        check(Money.parse("-12.345") == -1235, "-12.345");
+        check(Money.parse("-0.005") == -1, "-0.005");
+        check(Money.parse("0.004") == 0, "0.004");
+        check(Money.parse("21.599999999999998") == 2160, "21.599999999999998");
+        check(Money.parse("12.5") == 1250, "12.5");
+        check(Money.parse("12") == 1200, "12");
+        check(Money.parse(" 3.10 ") == 310, " 3.10 ");
+        check(Money.parse("1.5E1") == 1500, "1.5E1");
+
+        // Random decimals with up to six fraction digits, against BigDecimal's HALF_UP
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            long whole = random.nextInt(1_000_000);
+            int digits = random.nextInt(7);
+            StringBuilder text = new StringBuilder();
+            if (random.nextBoolean()) text.append('-');
+            text.append(whole);
+            if (digits > 0) {
+                text.append('.');
+                for (int d = 0; d < digits; d++) {
+                    text.append((char) ('0' + random.nextInt(10)));
+                }
+            }
+            long expected = new BigDecimal(text.toString()).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+            check(Money.parse(text.toString()) == expected, text + " parsed as " + Money.parse(text.toString()) + ", expected " + expected);
+        }
+
+        // Malformed amounts are rejected rather than read as zero
+        for (String bad : new String[] {"", "-", ".", "12.3.4", "abc", "1,000.00"}) {
+            try {
+                Money.parse(bad);
+                throw new AssertionError("'" + bad + "' parsed");
+            } catch (NumberFormatException expected) {
+                // rejected
+            }
+        }
+        System.out.println("OK: Money round trips and half-up rounding");
+    }
+
+    private static void checkRoundTrip(long cents) {
+        String text = Money.format(cents);
+        check(Money.parse(text) == cents, cents + " formatted as " + text + " parsed as " + Money.parse(text));
+        char[] record = ("|" + text + "|").toCharArray();
+        check(Money.parse(record, 1, record.length - 1) == cents, cents + " parsed from a record");
+        if (Math.abs(cents) <= 1_000_000_000L) {
+            check(Money.cents(Money.dollars(cents)) == cents, cents + " through dollars");
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
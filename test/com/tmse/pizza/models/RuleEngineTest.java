@@ -0,0 +1,160 @@
+package com.tmse.pizza.models;
+
+import java.util.List;
+
+// Quotes for carts against a small menu with its own taxes, combos and coupons: several combos in
+// one cart, a named combo slot next to a typed one, ZIP+4 and pickup tax, each coupon outcome, and
+// half-up rounding of tax and percentage coupons. Run with ./test.sh.
+public class RuleEngineTest {
+    private static final ComboDeal TWO_PIZZAS = new ComboDeal("two-pizzas", "Two Pizzas", List.of("pizza", "pizza"), 4.00);
+    private static final ComboDeal PIZZA_AND_DRINK = new ComboDeal("pizza-drink", "Pizza and Drink", List.of("pizza", "beverage"), 2.00);
+    // Typed entry listed first; the engine still fills the named one first
+    private static final ComboDeal PEPPERONI_PLUS = new ComboDeal("pep-plus", "Pepperoni Plus", List.of("pizza", "pep"), 5.00);
+
+    public static void main(String[] args) {
+        multipleCombos();
+        namedBeforeTyped();
+        taxByAddress();
+        coupons();
+        couponMinimumBeforeCombos();
+        rounding();
+        System.out.println("OK: combos, taxes, coupons and rounding quote as expected");
+    }
+
+    private static void multipleCombos() {
+        RuleEngine rules = menu(TWO_PIZZAS, PIZZA_AND_DRINK).getRules();
+        // Three pizzas and two drinks: one pair of pizzas, then the third pizza with a drink
+        CartQuote quote = rules.quote(List.of(pepperoni(3), cola(2)), "pickup", null, null);
+        check(quote.getSubtotalCents() == 3400, "subtotal " + quote.getSubtotalCents());
+        check(quote.getComboDiscountCents() == 600, "combo discount " + quote.getComboDiscountCents());
+        check(quote.getAppliedCombos().equals(List.of("Two Pizzas", "Pizza and Drink")), "applied " + quote.getAppliedCombos());
+        check(quote.getTaxCents() == 224, "tax " + quote.getTaxCents());
+        check(quote.getTotalCents() == 3024, "total " + quote.getTotalCents());
+
+        // Four pizzas and a drink: two pairs, nothing left over for the drink
+        quote = rules.quote(List.of(pepperoni(2), veggie(2), cola(1)), "pickup", null, null);
+        check(quote.getAppliedCombos().equals(List.of("Two Pizzas", "Two Pizzas")), "applied " + quote.getAppliedCombos());
+        check(quote.getComboDiscountCents() == 800, "combo discount " + quote.getComboDiscountCents());
+    }
+
+    private static void namedBeforeTyped() {
+        RuleEngine rules = menu(PEPPERONI_PLUS, TWO_PIZZAS).getRules();
+        // If "any pizza" took the pepperoni, the named slot would find nothing left
+        CartQuote quote = rules.quote(List.of(pepperoni(1), veggie(1)), "pickup", null, null);
+        check(quote.getAppliedCombos().equals(List.of("Pepperoni Plus")), "applied " + quote.getAppliedCombos());
+        check(quote.getComboDiscountCents() == 500, "combo discount " + quote.getComboDiscountCents());
+
+        // Two pepperonis complete the named combo too
+        quote = rules.quote(List.of(pepperoni(2)), "pickup", null, null);
+        check(quote.getAppliedCombos().equals(List.of("Pepperoni Plus")), "applied " + quote.getAppliedCombos());
+
+        // Without a pepperoni only the typed combo applies
+        quote = rules.quote(List.of(veggie(2)), "pickup", null, null);
+        check(quote.getAppliedCombos().equals(List.of("Two Pizzas")), "applied " + quote.getAppliedCombos());
+
+        // One pepperoni alone cannot fill both slots
+        quote = rules.quote(List.of(pepperoni(1)), "pickup", null, null);
+        check(quote.getAppliedCombos().isEmpty(), "applied " + quote.getAppliedCombos());
+        check(quote.getComboDiscountCents() == 0, "combo discount " + quote.getComboDiscountCents());
+    }
+
+    private static void taxByAddress() {
+        RuleEngine rules = menu().getRules();
+        check(rules.taxRuleFor("delivery", "1 Market St, San Francisco, CA 94105-1234").getId().equals("downtown"), "ZIP+4 longest prefix");
+        check(rules.taxRuleFor("delivery", "1 Market St, San Francisco, CA 94105").getId().equals("downtown"), "ZIP");
+        check(rules.taxRuleFor("delivery", "200 Mission St, CA 94110-0001").getId().equals("metro"), "ZIP+4 shorter prefix");
+        check(rules.taxRuleFor("delivery", "5 Broadway, New York, NY 10001-2345").getId().equals("store"), "ZIP+4 outside any prefix");
+        check(rules.taxRuleFor("delivery", "no postal code").getId().equals("store"), "no postal code");
+        check(rules.taxRuleFor("delivery", null).getId().equals("store"), "no address");
+
+        // Pickup is taxed at the store whatever address is on the order
+        List<OrderItem> cart = List.of(veggie(1));
+        CartQuote pickup = rules.quote(cart, "pickup", "1 Market St, CA 94105-1234", null);
+        CartQuote delivery = rules.quote(cart, "delivery", "1 Market St, CA 94105-1234", null);
+        check(pickup.getTaxRule().getId().equals("store") && pickup.getTaxCents() == 96, "pickup tax " + pickup.getTaxCents());
+        check(delivery.getTaxRule().getId().equals("downtown") && delivery.getTaxCents() == 120, "delivery tax " + delivery.getTaxCents());
+    }
+
+    private static void coupons() {
+        RuleEngine rules = menu().getRules();
+        List<OrderItem> small = List.of(veggie(1));
+        List<OrderItem> large = List.of(veggie(2));
+
+        CartQuote quote = rules.quote(small, "pickup", null, null);
+        check(quote.getCouponStatus() == CartQuote.CouponStatus.NONE, "no code");
+        quote = rules.quote(small, "pickup", null, "   ");
+        check(quote.getCouponStatus() == CartQuote.CouponStatus.NONE, "blank code");
+
+        quote = rules.quote(large, "pickup", null, "NOPE");
+        check(quote.getCouponStatus() == CartQuote.CouponStatus.UNKNOWN, "unknown code");
+        check(quote.getCoupon() == null && quote.getCouponDiscountCents() == 0, "unknown code discount");
+
+        quote = rules.quote(small, "pickup", null, "TENOFF");
+        check(quote.getCouponStatus() == CartQuote.CouponStatus.BELOW_MINIMUM, "below minimum");
+        check(quote.getCoupon() != null && quote.getCouponDiscountCents() == 0, "below minimum discount");
+
+        quote = rules.quote(large, "pickup", null, " tenoff ");
+        check(quote.getCouponStatus() == CartQuote.CouponStatus.APPLIED, "code ignores case and spaces");
+        check(quote.getCouponDiscountCents() == 240, "percent off " + quote.getCouponDiscountCents());
+
+        // An amount off never takes the cart below zero
+        quote = rules.quote(List.of(cola(1)), "pickup", null, "FIVEOFF");
+        check(quote.getCouponStatus() == CartQuote.CouponStatus.APPLIED, "amount off applied");
+        check(quote.getCouponDiscountCents() == 200 && quote.getTaxCents() == 0 && quote.getTotalCents() == 0,
+            "amount off capped " + quote.getCouponDiscountCents());
+    }
+
+    // The minimum is met by the subtotal before combos, but the discount is taken from what the
+    // combos leave
+    private static void couponMinimumBeforeCombos() {
+        RuleEngine rules = menu(TWO_PIZZAS).getRules();
+        CartQuote quote = rules.quote(List.of(pepperoni(2)), "pickup", null, "TENOFF");
+        check(quote.getSubtotalCents() == 2000 && quote.getComboDiscountCents() == 400, "combo on a $20 cart");
+        check(quote.getCouponStatus() == CartQuote.CouponStatus.APPLIED, "minimum checked before combos");
+        check(quote.getCouponDiscountCents() == 160, "percent of the combo price " + quote.getCouponDiscountCents());
+        check(quote.getTaxCents() == 115, "tax " + quote.getTaxCents());
+    }
+
+    private static void rounding() {
+        RuleEngine rules = menu().getRules();
+        // 8% of $10.19 is 81.52 cents, of $10.06 is 80.48 cents
+        check(rules.quote(List.of(item("pizza", "Veggie", 1019)), "pickup", null, null).getTaxCents() == 82, "tax rounds up");
+        check(rules.quote(List.of(item("pizza", "Veggie", 1006)), "pickup", null, null).getTaxCents() == 80, "tax rounds down");
+        // 10% of $20.05 is exactly half a cent over 200
+        CartQuote quote = rules.quote(List.of(item("pizza", "Veggie", 2005)), "pickup", null, "TENOFF");
+        check(quote.getCouponDiscountCents() == 201, "half a cent rounds up " + quote.getCouponDiscountCents());
+    }
+
+    private static MenuCatalog menu(ComboDeal... combos) {
+        return MenuCatalog.of(1, List.of(),
+            List.of(new Pizza("pep", "Pepperoni", "", 10.00, List.of()),
+                    new Pizza("veg", "Veggie", "", 12.00, List.of())),
+            List.of(new Beverage("cola", "Cola", "", 2.00, 2.50, 3.00)),
+            List.of(new TaxRule("store", "Sales Tax", 8.0, List.of()),
+                    new TaxRule("metro", "Metro Tax", 9.0, List.of("941")),
+                    new TaxRule("downtown", "Downtown Tax", 10.0, List.of("94105"))),
+            List.of(combos),
+            List.of(new Coupon("TENOFF", "10% off orders of $20 or more", 10, 0, 20.00),
+                    new Coupon("FIVEOFF", "$5 off", 0, 5.00, 0)));
+    }
+
+    private static OrderItem pepperoni(int quantity) {
+        return new OrderItem("pizza", "Pepperoni", 1000, quantity);
+    }
+
+    private static OrderItem veggie(int quantity) {
+        return new OrderItem("pizza", "Veggie", 1200, quantity);
+    }
+
+    private static OrderItem cola(int quantity) {
+        return new OrderItem("beverage", "Cola", 200, quantity);
+    }
+
+    private static OrderItem item(String type, String name, long unitPriceCents) {
+        return new OrderItem(type, name, unitPriceCents, 1);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,111 @@
+package com.tmse.pizza.storage;
+
+import com.tmse.pizza.models.Order;
+import com.tmse.pizza.models.OrderStatus;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Many drivers racing to claim the same ready orders: every order must go to exactly one of them,
+// everyone else must be told it is taken, and the log must hold exactly one assignment record per
+// order. Run with ./test.sh, which starts it in an empty working directory.
+public class ClaimOrderStressTest {
+    private static final int ORDERS = 200;
+    private static final int DRIVERS = 16;
+
+    public static void main(String[] args) throws Exception {
+        List<String> orderIds = new ArrayList<>();
+        List<Order> ready = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order("CLAIM-" + i, "customer" + i);
+            order.setCustomerName("Customer " + i);
+            order.setOrderType("delivery");
+            order.setDeliveryAddress(i + " Main St");
+            order.setStatus(OrderStatus.READY.getCode());
+            order.setSubtotalCents(1000 + i);
+            order.setTaxCents(80);
+            order.setTotalCents(1080 + i);
+            ready.add(order);
+            orderIds.add(order.getOrderId());
+        }
+        for (Order order : ready) {
+            FileStorage.saveOrder(order);
+        }
+
+        // orderId -> drivers that were told they got it
+        ConcurrentMap<String, List<String>> winners = new ConcurrentHashMap<>();
+        ConcurrentMap<String, Integer> refusals = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(DRIVERS);
+        List<Future<?>> drivers = new ArrayList<>();
+        for (int d = 0; d < DRIVERS; d++) {
+            String driverId = "driver" + d;
+            List<String> claimOrder = new ArrayList<>(orderIds);
+            Collections.shuffle(claimOrder, new Random(d));
+            drivers.add(pool.submit(() -> {
+                start.await();
+                for (String orderId : claimOrder) {
+                    if (FileStorage.claimOrder(orderId, driverId)) {
+                        winners.computeIfAbsent(orderId, id -> Collections.synchronizedList(new ArrayList<>())).add(driverId);
+                    } else {
+                        refusals.merge(orderId, 1, Integer::sum);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> driver : drivers) {
+            driver.get();
+        }
+        pool.shutdown();
+
+        Map<String, Integer> assignmentRecords = assignmentRecords();
+        Map<String, Order> stored = new HashMap<>();
+        for (Order order : FileStorage.getAllOrders()) {
+            stored.put(order.getOrderId(), order);
+        }
+        for (String orderId : orderIds) {
+            List<String> won = winners.getOrDefault(orderId, List.of());
+            check(won.size() == 1, orderId + " was won by " + won);
+            check(refusals.getOrDefault(orderId, 0) == DRIVERS - 1,
+                  orderId + " refused " + refusals.get(orderId) + " of " + (DRIVERS - 1) + " losing drivers");
+            check(assignmentRecords.getOrDefault(orderId, 0) == 1,
+                  orderId + " has " + assignmentRecords.get(orderId) + " assignment records in the log");
+            Order order = stored.get(orderId);
+            check(order != null && order.getOrderStatus() == OrderStatus.OUT_FOR_DELIVERY
+                  && won.get(0).equals(order.getAssignedDriverId()),
+                  orderId + " is stored as " + (order == null ? "missing" : order.getStatus() + " for " + order.getAssignedDriverId()));
+        }
+        System.out.println("OK: " + ORDERS + " orders, " + DRIVERS + " drivers, one winner and one assignment record each");
+    }
+
+    // orderId -> out-for-delivery records with a driver in data/orders.txt
+    private static Map<String, Integer> assignmentRecords() throws IOException {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String line : Files.readAllLines(Paths.get("data/orders.txt"), StandardCharsets.UTF_8)) {
+            String[] fields = line.split("\\|", -1);
+            if (fields.length > 10 && OrderStatus.OUT_FOR_DELIVERY.getCode().equals(fields[6]) && !fields[10].isEmpty()) {
+                counts.merge(fields[0], 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
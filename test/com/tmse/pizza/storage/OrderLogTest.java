@@ -0,0 +1,66 @@
+package com.tmse.pizza.storage;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// An orders file from before the append log may end without a newline: its last order must be
+// readable and must survive the next append. A fragment a writer left behind after the file was
+// loaded is still dropped by that append. Run with ./test.sh, which starts it in an empty directory.
+public class OrderLogTest {
+    private static final String LEGACY_FIRST = "ORD-1|alice|Alice|10.00|0.80|10.80|delivered|1735725600000|pickup||||Cash||";
+    private static final String LEGACY_LAST = "ORD-2|bob|Bob|20.00|1.60|21.60|pending|1735729200000|pickup||||Cash||";
+
+    public static void main(String[] args) throws Exception {
+        new File("data").mkdirs();
+        File file = new File("data/orders.txt");
+        Files.write(file.toPath(), (LEGACY_FIRST + "\n" + LEGACY_LAST).getBytes(StandardCharsets.UTF_8));
+
+        OrderLog log = new OrderLog("data/orders.txt", "data/orders.lock");
+        List<String> records = log.readAll();
+        check(records.equals(List.of(LEGACY_FIRST, LEGACY_LAST)), "legacy file read as " + records);
+        check(LEGACY_LAST.equals(log.read("ORD-2")), "last legacy order read as " + log.read("ORD-2"));
+
+        append(log, "ORD-3|carol|Carol|5.00|0.40|5.40|pending|1735732800000|pickup||||Cash|||1|");
+        String content = Files.readString(file.toPath());
+        check(content.equals(LEGACY_FIRST + "\n" + LEGACY_LAST + "\n" + "ORD-3|carol|Carol|5.00|0.40|5.40|pending|1735732800000|pickup||||Cash|||1|\n"),
+              "file after the first append:\n" + content);
+
+        // Another terminal's view, from scratch
+        OrderLog reopened = new OrderLog("data/orders.txt", "data/orders.lock");
+        check(reopened.readAll().size() == 3, "reopened log has " + reopened.readAll().size() + " orders");
+
+        // A writer that died mid-record after the file was loaded: its fragment is not an order
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write("ORD-4|dave|Da".getBytes(StandardCharsets.UTF_8));
+        }
+        check(!log.contains("ORD-4"), "fragment indexed as an order");
+        append(log, "ORD-5|erin|Erin|7.00|0.56|7.56|pending|1735736400000|pickup||||Cash|||1|");
+        content = Files.readString(file.toPath());
+        check(!content.contains("ORD-4") && content.endsWith("ORD-5|erin|Erin|7.00|0.56|7.56|pending|1735736400000|pickup||||Cash|||1|\n"),
+              "file after appending past a fragment:\n" + content);
+        check(log.readAll().size() == 4, "log has " + log.readAll().size() + " orders after the fragment");
+
+        System.out.println("OK: unterminated legacy last order kept, dead fragment dropped");
+    }
+
+    @SuppressWarnings("try")
+    private static void append(OrderLog log, String record) throws Exception {
+        Map<String, String> records = new LinkedHashMap<>();
+        records.put(OrderLog.idOf(record), record);
+        synchronized (log) {
+            try (FileLock lock = log.lock()) {
+                log.appendAll(records);
+            }
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
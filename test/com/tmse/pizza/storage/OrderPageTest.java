@@ -0,0 +1,86 @@
+package com.tmse.pizza.storage;
+
+import com.tmse.pizza.models.Order;
+import com.tmse.pizza.models.OrderStatus;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+// Paging through order history from the status, type and time indexes must give exactly the
+// orders a plain filter over every order gives, newest first, with no gaps or repeats across
+// pages, also after orders change status. Run with ./test.sh, which starts it in an empty directory.
+public class OrderPageTest {
+    private static final int ORDERS = 1_500;
+    private static final int PAGE = 7;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 5, 1);
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    public static void main(String[] args) throws Exception {
+        Random random = new Random(20);
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order("PAGE-" + i, "customer" + i);
+            order.setOrderType(random.nextInt(4) == 0 ? "delivery" : "pickup");
+            order.setStatus(STATUSES[random.nextInt(STATUSES.length)].getCode());
+            // Some orders share a millisecond, so the order id has to break ties
+            long day = FIRST_DAY.plusDays(random.nextInt(20)).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            order.setOrderTimeMillis(day + random.nextInt(5) * 3_600_000L);
+            FileStorage.saveOrder(order);
+        }
+        checkQueries(random, "after saving");
+
+        for (Order order : FileStorage.getAllOrders()) {
+            if (random.nextInt(4) == 0) {
+                order.setStatus(STATUSES[random.nextInt(STATUSES.length)].getCode());
+                FileStorage.updateOrder(order);
+            }
+        }
+        checkQueries(random, "after status changes");
+        System.out.println("OK: paged queries match a full filter over " + ORDERS + " orders");
+    }
+
+    private static void checkQueries(Random random, String when) throws Exception {
+        List<OrderQuery> queries = new ArrayList<>();
+        queries.add(OrderQuery.all());
+        for (OrderStatus status : STATUSES) {
+            queries.add(OrderQuery.all().withStatus(status));
+            queries.add(OrderQuery.all().withStatus(status).withType("delivery"));
+        }
+        queries.add(OrderQuery.all().withType("pickup"));
+        for (int i = 0; i < 10; i++) {
+            LocalDate from = FIRST_DAY.plusDays(random.nextInt(20));
+            queries.add(OrderQuery.all().withStatus(STATUSES[random.nextInt(STATUSES.length)]).placedBetween(from, from.plusDays(random.nextInt(5))));
+            queries.add(OrderQuery.all().withType("delivery").placedBetween(null, from));
+        }
+
+        List<Order> all = FileStorage.getAllOrders();
+        for (OrderQuery query : queries) {
+            List<String> expected = new ArrayList<>();
+            all.stream().filter(query::matches)
+                .sorted(Comparator.comparingLong(Order::getOrderTimeMillis).reversed().thenComparing(Order::getOrderId))
+                .forEach(order -> expected.add(order.getOrderId()));
+
+            List<String> paged = new ArrayList<>();
+            String cursor = null;
+            do {
+                OrderPage page = FileStorage.findOrdersPage(query, cursor, PAGE);
+                check(page.getOrders().size() <= PAGE, "page larger than the limit");
+                for (Order order : page.getOrders()) {
+                    paged.add(order.getOrderId());
+                }
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+            check(paged.equals(expected), when + ": " + describe(query) + " paged " + paged.size() + " orders, expected " + expected.size());
+        }
+    }
+
+    private static String describe(OrderQuery query) {
+        return "status=" + query.getStatus() + " type=" + query.getOrderType() + " from=" + query.getFrom() + " to=" + query.getTo();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}
@@ -0,0 +1,125 @@
+package com.tmse.pizza.storage;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Times OrderRecordScanner against the String.split("\\|") parser it replaced, over a generated log.
+// Two workloads: decoding every field of every record, and picking out one status, where the
+// scanner only materialises the fields of matching records. Run with ./bench.sh.
+public class OrderRecordScannerBenchmark {
+    private static final int RECORDS = 200_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+    private static final String[] STATUSES = {"pending", "preparing", "ready", "out for delivery", "delivered", "cancelled"};
+
+    public static void main(String[] args) throws Exception {
+        List<String> log = generate(RECORDS);
+        report("full decode", "split", () -> splitDecodeAll(log), "scanner", () -> scanDecodeAll(log));
+        report("status filter", "split", () -> splitFilter(log, "ready"), "scanner", () -> scanFilter(log, "ready"));
+    }
+
+    private interface Workload {
+        long run() throws Exception;
+    }
+
+    private static void report(String name, String baseName, Workload base, String newName, Workload candidate) throws Exception {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += base.run() + candidate.run();
+        }
+        long baseNanos = Long.MAX_VALUE;
+        long newNanos = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            sink += base.run();
+            baseNanos = Math.min(baseNanos, System.nanoTime() - start);
+            start = System.nanoTime();
+            sink += candidate.run();
+            newNanos = Math.min(newNanos, System.nanoTime() - start);
+        }
+        System.out.printf("%-14s %-8s %7.1f ns/record   %-8s %7.1f ns/record   %.1fx   (%d)%n", name,
+                          baseName, (double) baseNanos / RECORDS, newName, (double) newNanos / RECORDS,
+                          (double) baseNanos / newNanos, sink % 10);
+    }
+
+    private static List<String> generate(int count) {
+        Random random = new Random(42);
+        List<String> log = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean delivery = random.nextBoolean();
+            long subtotal = 500 + random.nextInt(6000);
+            long tax = subtotal * 8 / 100;
+            log.add("ORD-" + (100000 + i) + "|customer" + random.nextInt(500) + "|Customer Name|" +
+                    cents(subtotal) + "|" + cents(tax) + "|" + cents(subtotal + tax) + "|" +
+                    STATUSES[random.nextInt(STATUSES.length)] + "|2025-0" + (1 + random.nextInt(9)) + "-1" +
+                    random.nextInt(10) + " 1" + random.nextInt(10) + ":3" + random.nextInt(10) + ":0" + random.nextInt(10) + "|" +
+                    (delivery ? "delivery|12 Main St" : "pickup|") + "|" +
+                    (delivery ? "driver" + random.nextInt(20) + "|driver" + random.nextInt(20) : "|") + "|Cash|no onions|" +
+                    "0,1,2,0,,1,12.99,3.4,,;0,5,,,1,2,2.49,,,|1");
+        }
+        return log;
+    }
+
+    private static String cents(long cents) {
+        return cents / 100 + "." + (cents % 100 < 10 ? "0" : "") + cents % 100;
+    }
+
+    // The parser the scanner replaced: split on the regex, then parse each field from its own String
+    private static long splitDecodeAll(List<String> log) throws ParseException {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        long sink = 0;
+        for (String line : log) {
+            String[] parts = line.split("\\|");
+            sink += parts[0].length() + parts[1].length() + parts[2].length();
+            sink += (long) (Double.parseDouble(parts[3]) + Double.parseDouble(parts[4]) + Double.parseDouble(parts[5]));
+            sink += parts[6].length();
+            sink += dateFormat.parse(parts[7]).getTime();
+            for (int i = 8; i < parts.length; i++) {
+                sink += parts[i].length();
+            }
+        }
+        return sink;
+    }
+
+    private static long scanDecodeAll(List<String> log) {
+        OrderRecordScanner record = new OrderRecordScanner();
+        long sink = 0;
+        for (String line : log) {
+            record.reset(line);
+            sink += record.field(0).length() + record.field(1).length() + record.field(2).length();
+            sink += record.parseCents(3) + record.parseCents(4) + record.parseCents(5);
+            sink += record.field(6).length();
+            sink += record.parseEpochMillis(7);
+            for (int i = 8; i < record.fieldCount(); i++) {
+                sink += record.field(i).length();
+            }
+        }
+        return sink;
+    }
+
+    private static long splitFilter(List<String> log, String status) {
+        long matches = 0;
+        for (String line : log) {
+            String[] parts = line.split("\\|");
+            if (parts[6].equalsIgnoreCase(status)) {
+                matches += parts[0].length();
+            }
+        }
+        return matches;
+    }
+
+    private static long scanFilter(List<String> log, String status) {
+        OrderRecordScanner record = new OrderRecordScanner();
+        long matches = 0;
+        for (String line : log) {
+            record.reset(line);
+            if (record.fieldEqualsIgnoreCase(6, status)) {
+                matches += record.field(0).length();
+            }
+        }
+        return matches;
+    }
+}
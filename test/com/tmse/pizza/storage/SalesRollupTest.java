@@ -0,0 +1,144 @@
+package com.tmse.pizza.storage;
+
+import com.tmse.pizza.models.Order;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Property check for the per-day sales rollups the repository maintains incrementally: after
+// orders are added, replaced (including moving to another day or being cancelled) and deleted,
+// every day's rollup must equal the sums worked out from scratch over that day's orders,
+// to the cent. Run with ./test.sh, which starts it in an empty working directory.
+public class SalesRollupTest {
+    private static final int ORDERS = 2_000;
+    private static final int DAYS = 7;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 3, 1);
+    private static final String[] STATUSES = {"pending", "preparing", "ready", "delivered", "cancelled"};
+    private static final String[] PAYMENTS = {"Cash", "Credit Card", "cash on delivery", null};
+
+    public static void main(String[] args) throws Exception {
+        Random random = new Random(24);
+        // orderId -> what the order should be now, kept independently of storage
+        Map<String, Order> expected = new LinkedHashMap<>();
+
+        List<Order> placed = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order("ROLLUP-" + i, "customer" + random.nextInt(50));
+            randomize(order, random);
+            placed.add(order);
+        }
+        for (Order order : placed) {
+            FileStorage.saveOrder(order);
+            expected.put(order.getOrderId(), order.copy());
+        }
+        checkRollups(expected, "after adding");
+
+        // Replace a third of the orders
+        for (Order stored : FileStorage.getAllOrders()) {
+            if (random.nextInt(3) == 0) {
+                randomize(stored, random);
+                FileStorage.updateOrder(stored);
+                expected.put(stored.getOrderId(), stored.copy());
+            }
+        }
+        checkRollups(expected, "after replacing");
+
+        // Delete every cancelled order and every order on the third day
+        long thirdDay = FIRST_DAY.plusDays(2).toEpochDay();
+        int deleted = FileStorage.deleteOrders(order -> "cancelled".equals(order.getStatus()) || dayOf(order) == thirdDay);
+        int expectedDeleted = 0;
+        for (Order order : new ArrayList<>(expected.values())) {
+            if ("cancelled".equals(order.getStatus()) || dayOf(order) == thirdDay) {
+                expected.remove(order.getOrderId());
+                expectedDeleted++;
+            }
+        }
+        check(deleted == expectedDeleted, "deleted " + deleted + " orders, expected " + expectedDeleted);
+        checkRollups(expected, "after deleting");
+
+        System.out.println("OK: " + DAYS + " daily rollups match per-order sums after adding, replacing and deleting");
+    }
+
+    private static void randomize(Order order, Random random) {
+        LocalDate day = FIRST_DAY.plusDays(random.nextInt(DAYS));
+        long startOfDay = day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        order.setOrderTimeMillis(startOfDay + random.nextInt(24 * 60 * 60 * 1000));
+        order.setOrderType(random.nextBoolean() ? "delivery" : "pickup");
+        order.setDeliveryAddress("delivery".equals(order.getOrderType()) ? random.nextInt(999) + " Main St" : null);
+        order.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+        order.setPaymentMethod(PAYMENTS[random.nextInt(PAYMENTS.length)]);
+        // Odd cents, so any rounding through doubles would show
+        long subtotal = 1 + random.nextInt(20_000);
+        long tax = (subtotal * 825 + 5000) / 10000;
+        order.setSubtotalCents(subtotal);
+        order.setTaxCents(tax);
+        order.setTotalCents(subtotal + tax - random.nextInt(2) * Math.min(subtotal, 299));
+    }
+
+    private static void checkRollups(Map<String, Order> expected, String when) throws Exception {
+        Map<Long, List<Order>> byDay = new HashMap<>();
+        for (Order order : expected.values()) {
+            byDay.computeIfAbsent(dayOf(order), d -> new ArrayList<>()).add(order);
+        }
+        long allTimeSales = 0;
+        long allTimeTax = 0;
+        int allTimeOrders = 0;
+        for (int d = 0; d < DAYS; d++) {
+            LocalDate day = FIRST_DAY.plusDays(d);
+            List<Order> orders = byDay.getOrDefault(day.toEpochDay(), List.of());
+            SalesRollup rollup = FileStorage.getDailyRollup(day);
+
+            int sales = 0;
+            long salesCents = 0;
+            long taxCents = 0;
+            long cashCents = 0;
+            int delivery = 0;
+            int pickup = 0;
+            Map<String, Long> refunds = new HashMap<>();
+            for (Order order : orders) {
+                if ("delivery".equals(order.getOrderType())) delivery++;
+                else pickup++;
+                if ("cancelled".equals(order.getStatus())) {
+                    refunds.put(order.getOrderId(), order.getTotalCents());
+                    continue;
+                }
+                sales++;
+                salesCents += order.getTotalCents();
+                taxCents += order.getTaxCents();
+                if (order.getPaymentMethod() != null && order.getPaymentMethod().toLowerCase().contains("cash")) {
+                    cashCents += order.getTotalCents();
+                }
+            }
+            String label = when + ", " + day + ": ";
+            check(rollup.getOrderCount() == orders.size(), label + "order count " + rollup.getOrderCount() + " != " + orders.size());
+            check(rollup.getSalesOrderCount() == sales, label + "sales orders " + rollup.getSalesOrderCount() + " != " + sales);
+            check(rollup.getTotalSalesCents() == salesCents, label + "sales " + rollup.getTotalSalesCents() + " != " + salesCents);
+            check(rollup.getTotalTaxCents() == taxCents, label + "tax " + rollup.getTotalTaxCents() + " != " + taxCents);
+            check(rollup.getCashPaymentsCents() == cashCents, label + "cash " + rollup.getCashPaymentsCents() + " != " + cashCents);
+            check(rollup.getCardPaymentsCents() == salesCents - cashCents, label + "card payments");
+            check(rollup.getDeliveryCount() == delivery && rollup.getPickupCount() == pickup, label + "delivery/pickup counts");
+            check(rollup.getRefunds().equals(refunds), label + "refunds " + rollup.getRefunds() + " != " + refunds);
+            allTimeSales += salesCents;
+            allTimeTax += taxCents;
+            allTimeOrders += orders.size();
+        }
+        SalesRollup allTime = FileStorage.getAllTimeRollup();
+        check(allTime.getOrderCount() == allTimeOrders, when + ": all-time order count");
+        check(allTime.getTotalSalesCents() == allTimeSales, when + ": all-time sales " + allTime.getTotalSalesCents() + " != " + allTimeSales);
+        check(allTime.getTotalTaxCents() == allTimeTax, when + ": all-time tax");
+    }
+
+    private static long dayOf(Order order) {
+        return Instant.ofEpochMilli(order.getOrderTimeMillis()).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}